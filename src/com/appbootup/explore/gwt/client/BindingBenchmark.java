@@ -0,0 +1,94 @@
+package com.appbootup.explore.gwt.client;
+
+import com.google.gwt.core.client.Duration;
+import com.mxgraph.impl.model.MxGraphModel;
+import com.mxgraph.js.model.MxCellJS;
+import com.mxgraph.js.model.MxGraphModelJS;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Compares the call cost of the wrapper based binding ({@link MxGraphModel}, {@link MxICell}) with the overlay based binding ({@link MxGraphModelJS},
+ * {@link MxCellJS}) by walking the same cell hierarchy with both and reading the Id of every cell.
+ */
+public class BindingBenchmark {
+
+	private final MxGraphModel model;
+
+	public BindingBenchmark(MxGraphModel model) {
+		this.model = model;
+	}
+
+	/**
+	 * Populates the default layer with the given number of vertices, so that the benchmark has something to walk.
+	 *
+	 * @param parent parent for the new vertices
+	 * @param count number of vertices
+	 */
+	public void populate(MxICell parent, int count) {
+		MxGraphModelJS modelJS = MxGraphModelJS.of(model);
+		MxCellJS parentJS = MxCellJS.of(parent);
+		modelJS.beginUpdate();
+
+		try {
+			for (int i = 0; i < count; i++) {
+				MxCellJS cell = MxCellJS.create("v" + i, null, null);
+				cell.setVertex(true);
+				modelJS.add(parentJS, cell);
+			}
+		} finally {
+			modelJS.endUpdate();
+		}
+	}
+
+	/**
+	 * Runs both variants the given number of times and returns a one line report.
+	 *
+	 * @param iterations number of walks per variant
+	 * @return report with the time per walk of both variants
+	 */
+	public String run(int iterations) {
+		// Warms up both paths and the wrapper cache
+		walkWrapped(model.getRoot());
+		walkOverlay(MxGraphModelJS.of(model).getRoot());
+
+		Duration wrapped = new Duration();
+		int cells = 0;
+
+		for (int i = 0; i < iterations; i++) {
+			cells = walkWrapped(model.getRoot());
+		}
+
+		double wrappedMillis = wrapped.elapsedMillis() / (double) iterations;
+		Duration overlay = new Duration();
+
+		for (int i = 0; i < iterations; i++) {
+			walkOverlay(MxGraphModelJS.of(model).getRoot());
+		}
+
+		double overlayMillis = overlay.elapsedMillis() / (double) iterations;
+
+		return "cells: " + cells + ", wrapper: " + wrappedMillis + " ms/walk, overlay: " + overlayMillis + " ms/walk";
+	}
+
+	private int walkWrapped(MxICell cell) {
+		int count = cell.getId() != null ? 1 : 0;
+		int childCount = cell.getChildCount();
+
+		for (int i = 0; i < childCount; i++) {
+			count += walkWrapped(cell.getChildAt(i));
+		}
+
+		return count;
+	}
+
+	private int walkOverlay(MxCellJS cell) {
+		int count = cell.getId() != null ? 1 : 0;
+		int childCount = cell.getChildCount();
+
+		for (int i = 0; i < childCount; i++) {
+			count += walkOverlay(cell.getChildAt(i));
+		}
+
+		return count;
+	}
+}
@@ -0,0 +1,53 @@
+package com.appbootup.explore.gwt.client;
+
+import com.google.gwt.core.client.EntryPoint;
+import com.google.gwt.safehtml.shared.SafeHtmlBuilder;
+import com.google.gwt.user.client.Window;
+import com.google.gwt.user.client.ui.HTML;
+import com.google.gwt.user.client.ui.RootLayoutPanel;
+import com.mxgraph.impl.view.MxGraph;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Entry point of the BindingBenchmark module, which runs {@link BindingBenchmark} on a graph with <code>?count=&lt;vertex count&gt;</code> vertices
+ * (default {@link #DEFAULT_COUNT}) and shows the result on the page.
+ */
+public class BindingBenchmarkEntryPoint implements EntryPoint {
+
+	private static final int DEFAULT_COUNT = 10000;
+
+	private static final int ROUNDS = 10;
+
+	public void onModuleLoad() {
+		RootLayoutPanel rootLayoutPanel = RootLayoutPanel.get();
+		MxGraph mxGraph = new MxGraph();
+		rootLayoutPanel.add(mxGraph);
+
+		BindingBenchmark bindingBenchmark = new BindingBenchmark(mxGraph.getModel());
+		bindingBenchmark.populate((MxICell) mxGraph.getDefaultParent(), getCount());
+		String result = bindingBenchmark.run(ROUNDS);
+
+		rootLayoutPanel.add(new HTML(new SafeHtmlBuilder().appendHtmlConstant("<pre>").appendEscaped(result).appendHtmlConstant("</pre>").toSafeHtml()));
+	}
+
+	/**
+	 * Returns the vertex count from the URL, ignoring values that are not positive numbers.
+	 */
+	private static int getCount() {
+		String count = Window.Location.getParameter("count");
+
+		if (count != null) {
+			try {
+				int value = Integer.parseInt(count.trim());
+
+				if (value > 0) {
+					return value;
+				}
+			} catch (NumberFormatException e) {
+				// Falls back to the default count
+			}
+		}
+
+		return DEFAULT_COUNT;
+	}
+}
@@ -1,6 +1,11 @@
 package com.appbootup.explore.gwt.client;
 
 import com.google.gwt.core.client.EntryPoint;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.typedarrays.shared.Float64Array;
+import com.google.gwt.typedarrays.shared.Int32Array;
+import com.google.gwt.typedarrays.shared.TypedArrays;
 import com.google.gwt.user.client.ui.RootLayoutPanel;
 import com.mxgraph.impl.model.MxGraphModel;
 import com.mxgraph.impl.view.MxGraph;
@@ -17,10 +22,19 @@ public class GWTMxGraph implements EntryPoint {
 		rootLayoutPanel.add(mxGraph);
 		Object parent = mxGraph.getDefaultParent();
 		MxGraphModel model = mxGraph.getModel();
+		JsArrayString values = JavaScriptObject.createArray().cast();
+		values.push("Hell,");
+		values.push("Word!");
+		Float64Array bounds = TypedArrays.createFloat64Array(8);
+		bounds.set(new double[] { 40, 40, 160, 60, 400, 300, 160, 60 });
+		Int32Array pairs = TypedArrays.createInt32Array(2);
+		pairs.set(new int[] { 0, 1 });
 		model.beginUpdate();
-		Object v1 = mxGraph.insertVertex(parent, null, "Hell,", 40, 40, 160, 60);
-		Object v2 = mxGraph.insertVertex(parent, null, "Word!", 400, 300, 160, 60);
-		Object e1 = mxGraph.insertEdge(parent, null, "", v1, v2);
-		model.endUpdate();
+		try {
+			JsArrayString vertexIds = mxGraph.insertVertices(parent, null, values, bounds, null);
+			mxGraph.insertEdges(parent, null, null, vertexIds, pairs, null);
+		} finally {
+			model.endUpdate();
+		}
 	}
 }
\ No newline at end of file
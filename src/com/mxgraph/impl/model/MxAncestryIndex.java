@@ -0,0 +1,307 @@
+package com.mxgraph.impl.model;
+
+import java.util.List;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.impl.util.WrapperUtils;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Index of the depth and the ancestors of the cells in a model, so that ancestor tests and nearest common ancestors take O(log n) time instead of walking
+ * and comparing parent chains.
+ *
+ * For every cell contained in the model the index stores its depth and jump pointers to the ancestors at distance 1, 2, 4, ... (binary lifting), keyed by
+ * mxObjectIdentity. A child change recomputes the entries of the moved subtree, or drops them if the subtree was removed from the model, so the cost of a
+ * change is O(k log n) for a subtree of k cells.
+ *
+ * @see MxGraphModel#setAncestryIndexEnabled(boolean)
+ */
+public class MxAncestryIndex extends MxGraphModelIndex {
+
+	/**
+	 * Approximate size of an entry (hash entry, record and jump pointer array header) in bytes.
+	 */
+	private static final int ENTRY_SIZE = 88;
+
+	/**
+	 * Approximate size of a jump pointer in bytes.
+	 */
+	private static final int POINTER_SIZE = 8;
+
+	private JavaScriptObject state = createState();
+
+	public MxAncestryIndex(MxGraphModel model) {
+		super(model);
+	}
+
+	/**
+	 * Returns true if the given parent is an ancestor of the given child or the child itself. Cells that are not part of the model are never ancestors.
+	 *
+	 * @param parent {@link MxICell} that specifies the parent.
+	 * @param child {@link MxICell} that specifies the child.
+	 * @return true if parent is an ancestor of child
+	 */
+	public boolean isAncestor(MxICell parent, MxICell child) {
+		return isAncestor(state, parent.getJso(), child.getJso());
+	}
+
+	/**
+	 * Returns the nearest common ancestor of the given cells, which is one of the cells if it is an ancestor of the other one.
+	 *
+	 * @param cell1 first cell
+	 * @param cell2 second cell
+	 * @return nearest common ancestor or null if one of the cells is not part of the model
+	 */
+	public MxICell getNearestCommonAncestor(MxICell cell1, MxICell cell2) {
+		return WrapperUtils.wrap(getNearestCommonAncestor(state, cell1.getJso(), cell2.getJso()));
+	}
+
+	/**
+	 * Returns the cells of the given list that have no ancestor in the list. Every ancestor of the given cells is examined at most once, so the cost is linear
+	 * in the number of cells and their distinct ancestors.
+	 *
+	 * @param cells cells to filter
+	 * @return topmost cells
+	 */
+	public List<MxICell> getTopmostCells(List<MxICell> cells) {
+		return WrapperUtils.wrapList(getTopmostCells(getModel().getJso(), WrapperUtils.unwrapList(cells)));
+	}
+
+	/**
+	 * Returns the depth of the given cell, where the root has depth 0, or -1 if the cell is not part of the model.
+	 *
+	 * @param cell cell whose depth should be returned
+	 * @return depth or -1
+	 */
+	public int getDepth(MxICell cell) {
+		return getDepth(state, cell.getJso());
+	}
+
+	/**
+	 * Returns the number of indexed cells.
+	 *
+	 * @return number of cells
+	 */
+	public native int size() /*-{
+		return this.@com.mxgraph.impl.model.MxAncestryIndex::state.size;
+	}-*/;
+
+	@Override public native int getMemoryEstimate() /*-{
+		var state = this.@com.mxgraph.impl.model.MxAncestryIndex::state;
+		return state.size * @com.mxgraph.impl.model.MxAncestryIndex::ENTRY_SIZE + state.pointers * @com.mxgraph.impl.model.MxAncestryIndex::POINTER_SIZE;
+	}-*/;
+
+	@Override protected void clear() {
+		state = createState();
+	}
+
+	@Override protected void rebuild() {
+		state = createState();
+		index(state, getModel().getJso(), null);
+	}
+
+	@Override protected void processChange(JavaScriptObject change) {
+		JavaScriptObject child = getChild(change);
+
+		if (child != null) {
+			index(state, getModel().getJso(), child);
+		}
+	}
+
+	private static native JavaScriptObject createState() /*-{
+		return {
+			nodes : {},
+			size : 0,
+			pointers : 0
+		};
+	}-*/;
+
+	private static native JavaScriptObject getChild(JavaScriptObject change) /*-{
+		return (change instanceof $wnd.mxChildChange) ? change.child : null;
+	}-*/;
+
+	/**
+	 * Recomputes the entries of the subtree of the given cell, or of the whole model if cell is null. Parents are processed before their children, so the jump
+	 * pointers of a cell can be derived from the entries of its ancestors.
+	 */
+	private static native void index(JavaScriptObject state, JavaScriptObject model, JavaScriptObject cell) /*-{
+		var nodes = state.nodes;
+		var start = (cell != null) ? cell : model.getRoot();
+
+		if (start == null) {
+			return;
+		}
+
+		var present = cell == null || model.contains(start);
+		var stack = [ start ];
+
+		while (stack.length > 0) {
+			var tmp = stack.pop();
+			var id = $wnd.mxObjectIdentity.get(tmp);
+			var old = nodes[id];
+
+			if (old != null) {
+				state.size--;
+				state.pointers -= old.up.length;
+				delete nodes[id];
+			}
+
+			if (present) {
+				var parent = model.getParent(tmp);
+				var parentNode = (parent != null) ? nodes[$wnd.mxObjectIdentity.get(parent)] : null;
+				var node = {
+					depth : (parentNode != null) ? parentNode.depth + 1 : 0,
+					up : []
+				};
+
+				if (parentNode != null) {
+					node.up.push(parent);
+					var k = 0;
+
+					// The 2^(k+1)-th ancestor is the 2^k-th ancestor of the 2^k-th ancestor
+					while (true) {
+						var mid = nodes[$wnd.mxObjectIdentity.get(node.up[k])];
+
+						if (mid == null || mid.up.length <= k) {
+							break;
+						}
+
+						node.up.push(mid.up[k]);
+						k++;
+					}
+				}
+
+				nodes[id] = node;
+				state.size++;
+				state.pointers += node.up.length;
+			}
+
+			var childCount = model.getChildCount(tmp);
+
+			for ( var i = 0; i < childCount; i++) {
+				stack.push(model.getChildAt(tmp, i));
+			}
+		}
+	}-*/;
+
+	private static native int getDepth(JavaScriptObject state, JavaScriptObject cell) /*-{
+		var node = state.nodes[$wnd.mxObjectIdentity.get(cell)];
+		return (node != null) ? node.depth : -1;
+	}-*/;
+
+	/**
+	 * Returns the ancestor of the given cell at the given distance.
+	 */
+	private static native JavaScriptObject lift(JavaScriptObject state, JavaScriptObject cell, int distance) /*-{
+		var k = 0;
+
+		while (distance > 0 && cell != null) {
+			if ((distance & 1) != 0) {
+				var node = state.nodes[$wnd.mxObjectIdentity.get(cell)];
+				cell = (node != null && node.up.length > k) ? node.up[k] : null;
+			}
+
+			distance >>= 1;
+			k++;
+		}
+
+		return cell;
+	}-*/;
+
+	private static native boolean isAncestor(JavaScriptObject state, JavaScriptObject parent, JavaScriptObject child) /*-{
+		var parentNode = state.nodes[$wnd.mxObjectIdentity.get(parent)];
+		var childNode = state.nodes[$wnd.mxObjectIdentity.get(child)];
+
+		if (parentNode == null || childNode == null || childNode.depth < parentNode.depth) {
+			return false;
+		}
+
+		return @com.mxgraph.impl.model.MxAncestryIndex::lift(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;I)(state, child, childNode.depth - parentNode.depth) == parent;
+	}-*/;
+
+	private static native JavaScriptObject getNearestCommonAncestor(JavaScriptObject state, JavaScriptObject cell1, JavaScriptObject cell2) /*-{
+		var nodes = state.nodes;
+		var node1 = nodes[$wnd.mxObjectIdentity.get(cell1)];
+		var node2 = nodes[$wnd.mxObjectIdentity.get(cell2)];
+
+		if (node1 == null || node2 == null) {
+			return null;
+		}
+
+		// Brings both cells to the same depth
+		if (node1.depth > node2.depth) {
+			cell1 = @com.mxgraph.impl.model.MxAncestryIndex::lift(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;I)(state, cell1, node1.depth - node2.depth);
+		} else if (node2.depth > node1.depth) {
+			cell2 = @com.mxgraph.impl.model.MxAncestryIndex::lift(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;I)(state, cell2, node2.depth - node1.depth);
+		}
+
+		if (cell1 == cell2) {
+			return cell1;
+		}
+
+		// Takes the largest jumps that keep the cells apart, from the top down
+		var up1 = nodes[$wnd.mxObjectIdentity.get(cell1)].up;
+
+		for ( var k = up1.length - 1; k >= 0; k--) {
+			var a = nodes[$wnd.mxObjectIdentity.get(cell1)].up;
+			var b = nodes[$wnd.mxObjectIdentity.get(cell2)].up;
+
+			if (k < a.length && k < b.length && a[k] != b[k]) {
+				cell1 = a[k];
+				cell2 = b[k];
+			}
+		}
+
+		return nodes[$wnd.mxObjectIdentity.get(cell1)].up[0];
+	}-*/;
+
+	/**
+	 * Marks every cell as covered if it or one of its ancestors is in the given list. The result of each ancestor is memoized, so no parent chain is walked
+	 * twice.
+	 */
+	private static native JavaScriptObject getTopmostCells(JavaScriptObject model, JavaScriptObject cells) /*-{
+		var selected = {};
+		var covered = {};
+
+		for ( var i = 0; i < cells.length; i++) {
+			selected[$wnd.mxObjectIdentity.get(cells[i])] = true;
+		}
+
+		var isCovered = function(cell) {
+			var path = [];
+			var result = false;
+
+			while (cell != null) {
+				var id = $wnd.mxObjectIdentity.get(cell);
+
+				if (covered[id] != null) {
+					result = covered[id];
+					break;
+				} else if (selected[id]) {
+					result = true;
+					path.push(id);
+					break;
+				}
+
+				path.push(id);
+				cell = model.getParent(cell);
+			}
+
+			for ( var i = 0; i < path.length; i++) {
+				covered[path[i]] = result;
+			}
+
+			return result;
+		};
+
+		var result = [];
+
+		for ( var i = 0; i < cells.length; i++) {
+			if (!isCovered(model.getParent(cells[i]))) {
+				result.push(cells[i]);
+			}
+		}
+
+		return result;
+	}-*/;
+}
@@ -3,6 +3,7 @@ package com.mxgraph.impl.model;
 import java.io.Serializable;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.impl.util.WrapperUtils;
 import com.mxgraph.jso.MxICell;
 
 /**
@@ -36,6 +37,7 @@ public class MxCell implements MxICell, Cloneable, Serializable {
 
 	public MxCell() {
 		jso = createJso(null, null, null);
+		WrapperUtils.register(this);
 	}
 
 	private native JavaScriptObject createJso(Object value, JavaScriptObject geometry, String style) /*-{
@@ -46,9 +48,10 @@ public class MxCell implements MxICell, Cloneable, Serializable {
 		this.jso = jso;
 	}
 
-	//	public MxCell(Object value, MxGeometry geometry, String style) {
-	//		jso = createJso(value, geometry.getJso(), style);
-	//	}
+	public MxCell(Object value, MxGeometry geometry, String style) {
+		jso = createJso(value, geometry != null ? geometry.getJso() : null, style);
+		WrapperUtils.register(this);
+	}
 
 	/*
 	 * (non-Javadoc)
@@ -87,15 +90,15 @@ public class MxCell implements MxICell, Cloneable, Serializable {
 		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).valueChanged(newValue);
 	}-*/;
 
-	//	@Override public native mxGeometry getGeometry() /*-{
-	//		var geometryJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getGeometry();
-	//		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(geometryJS);
-	//	}-*/;
-	//
-	//	@Override public native void setGeometry(mxGeometry geometry) /*-{
-	//		var geometryJs = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(geometry);
-	//		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).setGeometry(geometryJs);
-	//	}-*/;
+	@Override public native MxGeometry getGeometry() /*-{
+		var geometryJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getGeometry();
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(geometryJS);
+	}-*/;
+
+	@Override public native void setGeometry(MxGeometry geometry) /*-{
+		var geometryJs = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(geometry);
+		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).setGeometry(geometryJs);
+	}-*/;
 
 	/*
 	 * (non-Javadoc)
@@ -213,7 +216,7 @@ public class MxCell implements MxICell, Cloneable, Serializable {
 	 */
 	@Override public native MxICell getParent() /*-{
 		var parentJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getParent();
-		return new @com.mxgraph.impl.model.MxCell::new(Lcom/google/gwt/core/client/JavaScriptObject;)(parentJS);
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(parentJS);
 	}-*/;
 
 	/*
@@ -233,7 +236,7 @@ public class MxCell implements MxICell, Cloneable, Serializable {
 	 */
 	@Override public native MxICell getTerminal(boolean source) /*-{
 		var terminalJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getTerminal(source);
-		return new @com.mxgraph.impl.model.MxCell::new(Lcom/google/gwt/core/client/JavaScriptObject;)(terminalJS);
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(terminalJS);
 	}-*/;
 
 	/*
@@ -242,8 +245,9 @@ public class MxCell implements MxICell, Cloneable, Serializable {
 	 * @see com.mxgraph.gwt.client.model.MxICell#setTerminal(com.mxgraph.gwt.client.model.MxICell, boolean)
 	 */
 	@Override public native MxICell setTerminal(MxICell terminal, boolean isSource) /*-{
-		var terminalJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).setTerminal(terminal, isSource);
-		return new @com.mxgraph.impl.model.MxCell::new(Lcom/google/gwt/core/client/JavaScriptObject;)(terminalJS);
+		var terminalJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(terminal);
+		terminalJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).setTerminal(terminalJS, isSource);
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(terminalJS);
 	}-*/;
 
 	/*
@@ -272,7 +276,7 @@ public class MxCell implements MxICell, Cloneable, Serializable {
 	 */
 	@Override public native MxICell getChildAt(int index) /*-{
 		var childJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getChildAt(index);
-		return new @com.mxgraph.impl.model.MxCell::new(Lcom/google/gwt/core/client/JavaScriptObject;)(childJS);
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(childJS);
 	}-*/;
 
 	/*
@@ -283,7 +287,7 @@ public class MxCell implements MxICell, Cloneable, Serializable {
 	@Override public native MxICell insert(MxICell child) /*-{
 		var childJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(child);
 		var insertedChildJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).insert(childJS);
-		return new @com.mxgraph.impl.model.MxCell::new(Lcom/google/gwt/core/client/JavaScriptObject;)(insertedChildJS);
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(insertedChildJS);
 	}-*/;
 
 	/*
@@ -294,7 +298,7 @@ public class MxCell implements MxICell, Cloneable, Serializable {
 	@Override public native MxICell insert(MxICell child, int index) /*-{
 		var childJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(child);
 		var insertedChildJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).insert(childJS, index);
-		return new @com.mxgraph.impl.model.MxCell::new(Lcom/google/gwt/core/client/JavaScriptObject;)(insertedChildJS);
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(insertedChildJS);
 	}-*/;
 
 	/*
@@ -384,7 +388,7 @@ public class MxCell implements MxICell, Cloneable, Serializable {
 	 */
 	@Override public native MxCell clone() /*-{
 		var mxCellJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).clone();
-		return new @com.mxgraph.impl.model.MxCell::new(Lcom/google/gwt/core/client/JavaScriptObject;)(mxCellJS);
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(mxCellJS);
 	}-*/;
 
 	/**
@@ -0,0 +1,140 @@
+package com.mxgraph.impl.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Merges redundant attribute changes of a transaction before it is dispatched, see {@link MxGraphModel#setChangeCompactionEnabled(boolean)}.
+ *
+ * Value, style, geometry, visible, collapsed and cell attribute changes of the same cell (and attribute) are merged into the first of them. This is
+ * possible because executing such a change applies the previous value it holds and then stores the value it replaced: after the transaction the first
+ * change holds the value the cell had before the transaction, which is all that undo needs, and the later changes only hold intermediate values. The first
+ * change takes over the new value of the last one for listeners, and changes whose net effect is nothing are dropped altogether. Root changes replace all
+ * cells and end all groups.
+ *
+ * The mxEvent.EXECUTE and mxEvent.EXECUTED events of the individual changes have already been fired when the transaction is compacted.
+ */
+public class MxChangeCompactor {
+
+	private final MxGraphModel model;
+
+	private JavaScriptObject listener;
+
+	MxChangeCompactor(MxGraphModel model) {
+		this.model = model;
+	}
+
+	void attach() {
+		if (listener == null) {
+			listener = addListener(model.getJso());
+		}
+	}
+
+	void detach() {
+		if (listener != null) {
+			removeListener(model.getJso(), listener);
+			listener = null;
+		}
+	}
+
+	/**
+	 * Compacts the changes of the given undoable edit in place.
+	 *
+	 * @param edit native mxUndoableEdit whose changes have been executed
+	 * @return number of removed changes
+	 */
+	public static native int compact(JavaScriptObject edit) /*-{
+		var changes = edit.changes;
+		var fields = [ [ $wnd.mxValueChange, 'value' ], [ $wnd.mxStyleChange, 'style' ], [ $wnd.mxGeometryChange, 'geometry' ],
+				[ $wnd.mxVisibleChange, 'visible' ], [ $wnd.mxCollapseChange, 'collapsed' ] ];
+
+		var getField = function(change) {
+			for ( var i = 0; i < fields.length; i++) {
+				if (change instanceof fields[i][0]) {
+					return fields[i][1];
+				}
+			}
+
+			return null;
+		};
+
+		var equal = function(a, b) {
+			return a == b || (a != null && b != null && typeof a.equals == 'function' && a.equals(b));
+		};
+
+		// Maps the cell, kind and attribute to the first change of the group
+		var groups = {};
+		var result = [];
+
+		for ( var i = 0; i < changes.length; i++) {
+			var change = changes[i];
+
+			if (change instanceof $wnd.mxRootChange) {
+				groups = {};
+				result.push(change);
+				continue;
+			}
+
+			var field = getField(change);
+			var key = null;
+
+			if (field != null && change.cell != null) {
+				key = $wnd.mxObjectIdentity.get(change.cell) + ':' + field;
+			} else if (change instanceof $wnd.mxCellAttributeChange && change.cell != null) {
+				key = $wnd.mxObjectIdentity.get(change.cell) + '@' + change.attribute;
+			}
+
+			if (key == null) {
+				result.push(change);
+			} else if (groups[key] == null) {
+				groups[key] = change;
+				result.push(change);
+			} else if (field != null) {
+				groups[key][field] = change[field];
+			} else {
+				// Attribute changes keep the requested value in value, previous is swapped on execute
+				groups[key].value = change.value;
+			}
+		}
+
+		// Drops groups whose first change restores the current state
+		var compacted = [];
+
+		for ( var i = 0; i < result.length; i++) {
+			var change = result[i];
+			var field = getField(change);
+
+			if (field != null && change.cell != null && equal(change.previous, change.cell[field])) {
+				continue;
+			} else if (change instanceof $wnd.mxCellAttributeChange && change.cell != null && change.cell.value != null
+					&& typeof change.cell.value.getAttribute == 'function' && change.previous == change.cell.value.getAttribute(change.attribute)) {
+				continue;
+			}
+
+			compacted.push(change);
+		}
+
+		var removed = changes.length - compacted.length;
+		edit.changes = compacted;
+
+		return removed;
+	}-*/;
+
+	/**
+	 * Compacts the current edit when the outermost update ends, before the edit is passed to the change and undo listeners.
+	 */
+	private static native JavaScriptObject addListener(JavaScriptObject model) /*-{
+		var listener = function(sender, evt) {
+			var edit = evt.getProperty('edit');
+
+			if (model.endingUpdate && edit != null && !edit.isEmpty()) {
+				@com.mxgraph.impl.model.MxChangeCompactor::compact(Lcom/google/gwt/core/client/JavaScriptObject;)(edit);
+			}
+		};
+		model.addListener($wnd.mxEvent.END_UPDATE, listener);
+		return listener;
+	}-*/;
+
+	private static native void removeListener(JavaScriptObject model, JavaScriptObject listener) /*-{
+		model.removeListener(listener);
+	}-*/;
+}
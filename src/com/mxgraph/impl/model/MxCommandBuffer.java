@@ -0,0 +1,295 @@
+package com.mxgraph.impl.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
+import com.google.gwt.core.client.JsArrayMixed;
+import com.google.gwt.core.client.JsArrayString;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Records model operations as opcodes and a flat array of arguments, so that they can be replayed by {@link MxGraphModel#execute(MxCommandBuffer)} in a
+ * single native call inside one transaction. This avoids one Java to JavaScript crossing (and the wrapping on both sides) per operation when building
+ * large diagrams.
+ *
+ * Cells are referenced by integer handles. Every operation that creates a cell, as well as {@link #ref(String)} and {@link #ref(MxICell)} for existing
+ * cells, returns the next handle. The value -1 stands for no cell, eg. a dangling edge end.
+ *
+ * (code) MxCommandBuffer commands = new MxCommandBuffer(); int parent = commands.ref(layer); int v1 = commands.insertVertex(parent, null, "Hello", 20, 20,
+ * 80, 30, null); int v2 = commands.insertVertex(parent, null, "World", 200, 150, 80, 30, null); commands.insertEdge(parent, null, "", v1, v2, null);
+ * JsArrayString ids = model.execute(commands); (end)
+ */
+public class MxCommandBuffer {
+
+	private static final int LOOKUP = 0;
+
+	private static final int CELL = 1;
+
+	private static final int INSERT_VERTEX = 2;
+
+	private static final int INSERT_EDGE = 3;
+
+	private static final int ADD = 4;
+
+	private static final int REMOVE = 5;
+
+	private static final int SET_TERMINALS = 6;
+
+	private static final int SET_VALUE = 7;
+
+	private static final int SET_STYLE = 8;
+
+	private static final int SET_VISIBLE = 9;
+
+	private static final int SET_COLLAPSED = 10;
+
+	private static final int SET_GEOMETRY = 11;
+
+	private JsArrayInteger opcodes = JavaScriptObject.createArray().cast();
+
+	private JsArrayMixed args = JavaScriptObject.createArray().cast();
+
+	private int handles;
+
+	/**
+	 * Returns a handle for the cell with the given Id, which is looked up when the buffer is executed.
+	 *
+	 * @param id Id of an existing cell
+	 * @return handle of the cell
+	 */
+	public int ref(String id) {
+		opcodes.push(LOOKUP);
+		args.push(id);
+		return handles++;
+	}
+
+	/**
+	 * Returns a handle for the given cell.
+	 *
+	 * @param cell existing cell
+	 * @return handle of the cell
+	 */
+	public int ref(MxICell cell) {
+		opcodes.push(CELL);
+		args.push(cell.getJso());
+		return handles++;
+	}
+
+	/**
+	 * Records the creation of a new vertex and its insertion into the given parent.
+	 *
+	 * @param parent handle of the parent
+	 * @param id optional Id of the new vertex
+	 * @param value label of the new vertex
+	 * @param x x-coordinate of the vertex
+	 * @param y y-coordinate of the vertex
+	 * @param width width of the vertex
+	 * @param height height of the vertex
+	 * @param style optional style of the vertex
+	 * @return handle of the new vertex
+	 */
+	public int insertVertex(int parent, String id, String value, double x, double y, double width, double height, String style) {
+		opcodes.push(INSERT_VERTEX);
+		args.push(parent);
+		args.push(id);
+		args.push(value);
+		args.push(x);
+		args.push(y);
+		args.push(width);
+		args.push(height);
+		args.push(style);
+		return handles++;
+	}
+
+	/**
+	 * Records the creation of a new edge, its insertion into the given parent and the connection to its terminals.
+	 *
+	 * @param parent handle of the parent
+	 * @param id optional Id of the new edge
+	 * @param value label of the new edge
+	 * @param source handle of the source terminal or -1
+	 * @param target handle of the target terminal or -1
+	 * @param style optional style of the edge
+	 * @return handle of the new edge
+	 */
+	public int insertEdge(int parent, String id, String value, int source, int target, String style) {
+		opcodes.push(INSERT_EDGE);
+		args.push(parent);
+		args.push(id);
+		args.push(value);
+		args.push(source);
+		args.push(target);
+		args.push(style);
+		return handles++;
+	}
+
+	public void add(int parent, int child) {
+		opcodes.push(ADD);
+		args.push(parent);
+		args.push(child);
+	}
+
+	public void remove(int cell) {
+		opcodes.push(REMOVE);
+		args.push(cell);
+	}
+
+	public void setTerminals(int edge, int source, int target) {
+		opcodes.push(SET_TERMINALS);
+		args.push(edge);
+		args.push(source);
+		args.push(target);
+	}
+
+	public void setValue(int cell, String value) {
+		opcodes.push(SET_VALUE);
+		args.push(cell);
+		args.push(value);
+	}
+
+	public void setStyle(int cell, String style) {
+		opcodes.push(SET_STYLE);
+		args.push(cell);
+		args.push(style);
+	}
+
+	public void setVisible(int cell, boolean visible) {
+		opcodes.push(SET_VISIBLE);
+		args.push(cell);
+		args.push(visible);
+	}
+
+	public void setCollapsed(int cell, boolean collapsed) {
+		opcodes.push(SET_COLLAPSED);
+		args.push(cell);
+		args.push(collapsed);
+	}
+
+	/**
+	 * Records a new geometry for the given cell. The existing geometry is cloned and its bounds replaced, so that edge points and relative flags are kept.
+	 */
+	public void setGeometry(int cell, double x, double y, double width, double height) {
+		opcodes.push(SET_GEOMETRY);
+		args.push(cell);
+		args.push(x);
+		args.push(y);
+		args.push(width);
+		args.push(height);
+	}
+
+	/**
+	 * Returns the number of recorded operations.
+	 *
+	 * @return number of operations
+	 */
+	public int size() {
+		return opcodes.length();
+	}
+
+	/**
+	 * Removes all recorded operations and resets the handles.
+	 */
+	public void clear() {
+		opcodes = JavaScriptObject.createArray().cast();
+		args = JavaScriptObject.createArray().cast();
+		handles = 0;
+	}
+
+	JsArrayString execute(MxGraphModel model) {
+		return execute(model.getJso(), opcodes, args);
+	}
+
+	/**
+	 * Interprets the buffer inside one transaction and returns the Ids of all referenced cells, indexed by handle.
+	 */
+	private static native JsArrayString execute(JavaScriptObject model, JsArrayInteger opcodes, JsArrayMixed args) /*-{
+		var cells = [];
+		var p = 0;
+		var cell = function(handle) {
+			return handle >= 0 ? cells[handle] : null;
+		};
+
+		model.beginUpdate();
+		try {
+			for ( var i = 0; i < opcodes.length; i++) {
+				switch (opcodes[i]) {
+				case @com.mxgraph.impl.model.MxCommandBuffer::LOOKUP:
+					cells.push(model.getCell(args[p++]));
+					break;
+				case @com.mxgraph.impl.model.MxCommandBuffer::CELL:
+					cells.push(args[p++]);
+					break;
+				case @com.mxgraph.impl.model.MxCommandBuffer::INSERT_VERTEX:
+					var parent = cell(args[p]);
+					var vertex = new $wnd.mxCell(args[p + 2], new $wnd.mxGeometry(args[p + 3], args[p + 4], args[p + 5], args[p + 6]), args[p + 7]);
+					vertex.setId(args[p + 1]);
+					vertex.setVertex(true);
+					vertex.setConnectable(true);
+					cells.push(model.add(parent, vertex));
+					p += 8;
+					break;
+				case @com.mxgraph.impl.model.MxCommandBuffer::INSERT_EDGE:
+					var parent = cell(args[p]);
+					var edge = new $wnd.mxCell(args[p + 2], new $wnd.mxGeometry(), args[p + 5]);
+					edge.setId(args[p + 1]);
+					edge.setEdge(true);
+					edge.geometry.relative = true;
+					model.add(parent, edge);
+					model.setTerminals(edge, cell(args[p + 3]), cell(args[p + 4]));
+					cells.push(edge);
+					p += 6;
+					break;
+				case @com.mxgraph.impl.model.MxCommandBuffer::ADD:
+					model.add(cell(args[p]), cell(args[p + 1]));
+					p += 2;
+					break;
+				case @com.mxgraph.impl.model.MxCommandBuffer::REMOVE:
+					model.remove(cell(args[p++]));
+					break;
+				case @com.mxgraph.impl.model.MxCommandBuffer::SET_TERMINALS:
+					model.setTerminals(cell(args[p]), cell(args[p + 1]), cell(args[p + 2]));
+					p += 3;
+					break;
+				case @com.mxgraph.impl.model.MxCommandBuffer::SET_VALUE:
+					model.setValue(cell(args[p]), args[p + 1]);
+					p += 2;
+					break;
+				case @com.mxgraph.impl.model.MxCommandBuffer::SET_STYLE:
+					model.setStyle(cell(args[p]), args[p + 1]);
+					p += 2;
+					break;
+				case @com.mxgraph.impl.model.MxCommandBuffer::SET_VISIBLE:
+					model.setVisible(cell(args[p]), args[p + 1]);
+					p += 2;
+					break;
+				case @com.mxgraph.impl.model.MxCommandBuffer::SET_COLLAPSED:
+					model.setCollapsed(cell(args[p]), args[p + 1]);
+					p += 2;
+					break;
+				case @com.mxgraph.impl.model.MxCommandBuffer::SET_GEOMETRY:
+					var target = cell(args[p]);
+					var geo = model.getGeometry(target);
+					geo = (geo != null) ? geo.clone() : new $wnd.mxGeometry();
+					geo.x = args[p + 1];
+					geo.y = args[p + 2];
+					geo.width = args[p + 3];
+					geo.height = args[p + 4];
+					model.setGeometry(target, geo);
+					p += 5;
+					break;
+				default:
+					throw new Error("Unknown opcode " + opcodes[i]);
+				}
+			}
+		} finally {
+			model.endUpdate();
+		}
+
+		var ids = new Array(cells.length);
+
+		for ( var i = 0; i < cells.length; i++) {
+			ids[i] = cells[i] != null ? cells[i].getId() : null;
+		}
+
+		return ids;
+	}-*/;
+}
@@ -0,0 +1,478 @@
+package com.mxgraph.impl.model;
+
+import java.util.List;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.mxgraph.impl.util.WrapperUtils;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Tracks the connected components of the vertices in the model, ie. the islands of vertices that are connected by edges regardless of their direction.
+ *
+ * Components are kept in a union-find structure with union by size and eager relabeling: every vertex stores the Id of its component, so
+ * {@link #getComponentId(MxICell)} takes constant time, and an inserted edge merges the smaller component into the larger one. When an edge is removed, a
+ * breadth-first search is started from both of its terminals in turns. The search stops as soon as the two meet, or as soon as one side runs out of
+ * vertices, in which case only that side is relabeled as a new component. The cost of a removal is therefore bounded by the size of the smaller part.
+ *
+ * Only vertices are tracked; an edge connects two components while it and both its terminals are contained in the model. Component Ids are generated
+ * and stay stable until the component is merged into another one or loses all its vertices. Merges and splits are fired by the model as
+ * {@link #COMPONENTS_MERGED} and {@link #COMPONENT_SPLIT} events after the change that caused them has been executed.
+ *
+ * @see MxGraphModel#setComponentTrackingEnabled(boolean)
+ */
+public class MxComponentTracker extends MxGraphModelIndex {
+
+	/**
+	 * Fired by the model when an edge connects two components. The <code>componentId</code> property contains the Id of the component that now contains the
+	 * vertices of both, the <code>otherComponentId</code> property the Id of the component that no longer exists.
+	 */
+	public static final String COMPONENTS_MERGED = "componentsMerged";
+
+	/**
+	 * Fired by the model when the removal of an edge or vertex splits a component. The <code>componentId</code> property contains the Id of the component
+	 * that keeps the part that could not be fully visited, the <code>otherComponentId</code> property the Id of the new component for the separated
+	 * vertices.
+	 */
+	public static final String COMPONENT_SPLIT = "componentSplit";
+
+	/**
+	 * Approximate size of a tracked vertex in bytes.
+	 */
+	private static final int VERTEX_SIZE = 96;
+
+	/**
+	 * Approximate size of a tracked edge in bytes.
+	 */
+	private static final int EDGE_SIZE = 88;
+
+	/**
+	 * Approximate size of a component in bytes.
+	 */
+	private static final int COMPONENT_SIZE = 80;
+
+	private JavaScriptObject state = createState();
+
+	public MxComponentTracker(MxGraphModel model) {
+		super(model);
+	}
+
+	/**
+	 * Returns the Id of the component that contains the given vertex.
+	 *
+	 * @param cell vertex
+	 * @return component Id, or null if the cell is not a vertex of the model
+	 */
+	public String getComponentId(MxICell cell) {
+		return getComponentId(state, cell.getJso());
+	}
+
+	/**
+	 * Returns the number of vertices in the given component.
+	 *
+	 * @param componentId Id returned by {@link #getComponentId(MxICell)}
+	 * @return number of vertices, or 0 if the component does not exist
+	 */
+	public native int getComponentSize(String componentId) /*-{
+		var component = this.@com.mxgraph.impl.model.MxComponentTracker::state.components['$' + componentId];
+		return (component != null) ? component.size : 0;
+	}-*/;
+
+	public native int getComponentCount() /*-{
+		return this.@com.mxgraph.impl.model.MxComponentTracker::state.componentCount;
+	}-*/;
+
+	/**
+	 * Returns the Ids of all components.
+	 *
+	 * @return component Ids in no particular order
+	 */
+	public native JsArrayString getComponentIds() /*-{
+		var components = this.@com.mxgraph.impl.model.MxComponentTracker::state.components;
+		var result = [];
+
+		for ( var key in components) {
+			result.push(key.substring(1));
+		}
+
+		return result;
+	}-*/;
+
+	/**
+	 * Returns the vertices of the given component, eg. to lay it out independently.
+	 *
+	 * @param componentId Id returned by {@link #getComponentId(MxICell)}
+	 * @return vertices of the component
+	 */
+	public List<MxICell> getComponentCells(String componentId) {
+		return WrapperUtils.wrapList(getComponentCells(state, componentId));
+	}
+
+	@Override public native int getMemoryEstimate() /*-{
+		var state = this.@com.mxgraph.impl.model.MxComponentTracker::state;
+		return state.vertexCount * @com.mxgraph.impl.model.MxComponentTracker::VERTEX_SIZE + state.edgeCount
+				* @com.mxgraph.impl.model.MxComponentTracker::EDGE_SIZE + state.componentCount
+				* @com.mxgraph.impl.model.MxComponentTracker::COMPONENT_SIZE;
+	}-*/;
+
+	@Override protected void clear() {
+		state = createState();
+	}
+
+	@Override protected void rebuild() {
+		state = createState();
+		index(state, getModel().getJso(), null);
+
+		// Building the components from scratch is not reported as merges
+		drainEvents(state);
+	}
+
+	@Override protected void processChange(JavaScriptObject change) {
+		JavaScriptObject cell = getChangedCell(change);
+
+		if (cell != null) {
+			index(state, getModel().getJso(), cell);
+			fireEvents(getModel().getJso(), drainEvents(state));
+		}
+	}
+
+	/**
+	 * Dispatches the collected merges and splits through the event source of the model.
+	 */
+	private static native void fireEvents(JavaScriptObject model, JsArrayString events) /*-{
+		for ( var i = 0; i + 2 < events.length; i += 3) {
+			model.fireEvent(new $wnd.mxEventObject(events[i], 'componentId', events[i + 1], 'otherComponentId', events[i + 2]));
+		}
+	}-*/;
+
+	private static native JavaScriptObject createState() /*-{
+		return {
+			// Component id per vertex id
+			vertices : {},
+			// Cell, component and adjacent edge ids per vertex id
+			nodes : {},
+			// Source and target vertex ids each edge connects
+			edges : {},
+			// Size and member vertex ids per '$' + component id
+			components : {},
+			// Flat list of type, component id, other component id
+			events : [],
+			nextId : 0,
+			vertexCount : 0,
+			edgeCount : 0,
+			componentCount : 0
+		};
+	}-*/;
+
+	private static native JsArrayString drainEvents(JavaScriptObject state) /*-{
+		var events = state.events;
+		state.events = [];
+		return events;
+	}-*/;
+
+	private static native String getComponentId(JavaScriptObject state, JavaScriptObject cell) /*-{
+		var node = state.nodes[$wnd.mxObjectIdentity.get(cell)];
+		return (node != null) ? node.component : null;
+	}-*/;
+
+	private static native JavaScriptObject getComponentCells(JavaScriptObject state, String componentId) /*-{
+		var component = state.components['$' + componentId];
+		var result = [];
+
+		if (component != null) {
+			for ( var id in component.members) {
+				result.push(state.nodes[id].cell);
+			}
+		}
+
+		return result;
+	}-*/;
+
+	/**
+	 * Re-derives the tracked vertices and edges in the subtree of the given cell, or of all cells if cell is null.
+	 */
+	private static native void index(JavaScriptObject state, JavaScriptObject model, JavaScriptObject cell) /*-{
+		var createComponent = function() {
+			var id = 'c' + (state.nextId++);
+			var component = {
+				id : id,
+				size : 0,
+				members : {}
+			};
+			state.components['$' + id] = component;
+			state.componentCount++;
+
+			return component;
+		};
+
+		var moveTo = function(vertexId, component) {
+			var node = state.nodes[vertexId];
+			var old = state.components['$' + node.component];
+			delete old.members[vertexId];
+			old.size--;
+			component.members[vertexId] = true;
+			component.size++;
+			node.component = component.id;
+
+			return old;
+		};
+
+		var union = function(sourceId, targetId) {
+			var a = state.components['$' + state.nodes[sourceId].component];
+			var b = state.components['$' + state.nodes[targetId].component];
+
+			if (a != b) {
+				if (a.size < b.size) {
+					var tmp = a;
+					a = b;
+					b = tmp;
+				}
+
+				for ( var id in b.members) {
+					moveTo(id, a);
+				}
+
+				delete state.components['$' + b.id];
+				state.componentCount--;
+				state.events.push(@com.mxgraph.impl.model.MxComponentTracker::COMPONENTS_MERGED, a.id, b.id);
+			}
+		};
+
+		var opposite = function(edgeId, vertexId) {
+			var edge = state.edges[edgeId];
+			return (edge.source == vertexId) ? edge.target : edge.source;
+		};
+
+		// Searches from both terminals in turns and splits off the side that is exhausted first. Returns the index of the relabeled side (0 for source, 1
+		// for target) and the id of its new component, or null if the terminals are still connected.
+		var split = function(sourceId, targetId) {
+			var sides = [ {
+				queue : [ sourceId ],
+				head : 0,
+				visited : {}
+			}, {
+				queue : [ targetId ],
+				head : 0,
+				visited : {}
+			} ];
+			sides[0].visited[sourceId] = true;
+			sides[1].visited[targetId] = true;
+
+			while (true) {
+				for ( var s = 0; s < 2; s++) {
+					var side = sides[s];
+					var other = sides[1 - s];
+
+					if (side.head == side.queue.length) {
+						var old = state.components['$' + state.nodes[side.queue[0]].component];
+						var component = createComponent();
+
+						for ( var i = 0; i < side.queue.length; i++) {
+							moveTo(side.queue[i], component);
+						}
+
+						state.events.push(@com.mxgraph.impl.model.MxComponentTracker::COMPONENT_SPLIT, old.id, component.id);
+
+						return {
+							side : s,
+							component : component.id
+						};
+					}
+
+					var v = side.queue[side.head++];
+
+					for ( var edgeId in state.nodes[v].edges) {
+						var w = opposite(edgeId, v);
+
+						if (other.visited[w]) {
+							return null;
+						}
+
+						if (!side.visited[w]) {
+							side.visited[w] = true;
+							side.queue.push(w);
+						}
+					}
+				}
+			}
+		};
+
+		var addVertex = function(vertex) {
+			var id = $wnd.mxObjectIdentity.get(vertex);
+
+			if (state.nodes[id] == null) {
+				var component = createComponent();
+				component.members[id] = true;
+				component.size = 1;
+				state.nodes[id] = {
+					cell : vertex,
+					component : component.id,
+					edges : {}
+				};
+				state.vertexCount++;
+			}
+		};
+
+		var removeEdge = function(edgeId) {
+			var edge = state.edges[edgeId];
+
+			if (edge != null) {
+				delete state.nodes[edge.source].edges[edgeId];
+				delete state.nodes[edge.target].edges[edgeId];
+				delete state.edges[edgeId];
+				state.edgeCount--;
+
+				if (edge.source != edge.target) {
+					split(edge.source, edge.target);
+				}
+			}
+		};
+
+		// Detaches the edges of the vertex and checks whether its former neighbours are still connected without it. Neighbours in the given set of removed
+		// vertex ids are skipped, they are removed as well.
+		var removeVertex = function(vertex, removed) {
+			var id = $wnd.mxObjectIdentity.get(vertex);
+			var node = state.nodes[id];
+
+			if (node != null) {
+				var component = state.components['$' + node.component];
+				delete component.members[id];
+				component.size--;
+
+				var neighbours = [];
+
+				for ( var edgeId in node.edges) {
+					var w = opposite(edgeId, id);
+
+					if (w != id) {
+						delete state.nodes[w].edges[edgeId];
+
+						if (!removed[w]) {
+							neighbours.push(w);
+						}
+					}
+
+					delete state.edges[edgeId];
+					state.edgeCount--;
+				}
+
+				delete state.nodes[id];
+				state.vertexCount--;
+
+				if (component.size == 0) {
+					delete state.components['$' + component.id];
+					state.componentCount--;
+				}
+
+				// Checks every neighbour against one representative of its current component. Comparing all neighbours with the first one would miss
+				// splits, eg. for a star whose center is removed the first leaf moves to a new component and the remaining leaves were never compared.
+				var representatives = {};
+
+				for ( var i = 0; i < neighbours.length; i++) {
+					var w = neighbours[i];
+					var componentId = state.nodes[w].component;
+					var representative = representatives[componentId];
+
+					if (representative == null) {
+						representatives[componentId] = w;
+					} else if (representative != w) {
+						var result = split(representative, w);
+
+						if (result != null) {
+							if (result.side == 0) {
+								// The representative has moved, the neighbour keeps the old id
+								representatives[result.component] = representative;
+								representatives[componentId] = w;
+							} else {
+								representatives[result.component] = w;
+							}
+						}
+					}
+				}
+			}
+		};
+
+		var update = function(edge, present) {
+			var id = $wnd.mxObjectIdentity.get(edge);
+			var old = state.edges[id];
+			var source = present ? model.getTerminal(edge, true) : null;
+			var target = present ? model.getTerminal(edge, false) : null;
+			var sourceId = (source != null) ? $wnd.mxObjectIdentity.get(source) : null;
+			var targetId = (target != null) ? $wnd.mxObjectIdentity.get(target) : null;
+
+			if (sourceId == null || targetId == null || state.nodes[sourceId] == null || state.nodes[targetId] == null) {
+				sourceId = null;
+				targetId = null;
+			}
+
+			if (old != null && old.source == sourceId && old.target == targetId) {
+				return;
+			}
+
+			removeEdge(id);
+
+			if (sourceId != null) {
+				state.edges[id] = {
+					source : sourceId,
+					target : targetId
+				};
+				state.nodes[sourceId].edges[id] = true;
+				state.nodes[targetId].edges[id] = true;
+				state.edgeCount++;
+				union(sourceId, targetId);
+			}
+		};
+
+		var start = (cell != null) ? cell : model.getRoot();
+
+		if (start == null) {
+			return;
+		}
+
+		var present = cell == null || model.contains(start);
+		var vertices = [];
+		var edges = [];
+		@com.mxgraph.impl.model.MxGraphModelIndex::visitSubtree(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(model, start, function(tmp) {
+			if (model.isVertex(tmp)) {
+				vertices.push(tmp);
+			} else if (model.isEdge(tmp)) {
+				edges.push(tmp);
+			}
+		});
+
+		if (present) {
+			for ( var i = 0; i < vertices.length; i++) {
+				addVertex(vertices[i]);
+			}
+
+			// Edges outside the subtree may reconnect to the added vertices, eg. when a removal is undone
+			for ( var i = 0; i < vertices.length; i++) {
+				var edgeCount = model.getEdgeCount(vertices[i]);
+
+				for ( var j = 0; j < edgeCount; j++) {
+					var edge = model.getEdgeAt(vertices[i], j);
+					update(edge, model.contains(edge));
+				}
+			}
+
+			for ( var i = 0; i < edges.length; i++) {
+				update(edges[i], true);
+			}
+		} else {
+			// Removes the vertices first and without checks between them, so that edges inside the removed subtree do not report splits
+			var removed = {};
+
+			for ( var i = 0; i < vertices.length; i++) {
+				removed[$wnd.mxObjectIdentity.get(vertices[i])] = true;
+			}
+
+			for ( var i = 0; i < vertices.length; i++) {
+				removeVertex(vertices[i], removed);
+			}
+
+			for ( var i = 0; i < edges.length; i++) {
+				update(edges[i], false);
+			}
+		}
+	}-*/;
+}
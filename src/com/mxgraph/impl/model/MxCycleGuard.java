@@ -0,0 +1,530 @@
+package com.mxgraph.impl.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.impl.util.WrapperUtils;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Keeps the model free of directed cycles by maintaining a topological order of the connected terminals.
+ *
+ * The order is updated incrementally with the algorithm of Pearce and Kelly: an edge from a lower to a higher position needs no work, otherwise only the
+ * terminals between the positions of its target and source are searched and reordered. {@link #wouldCreateCycle(MxICell, MxICell)} uses the same bounded
+ * search, so connection previews do not need to visit the whole graph.
+ *
+ * While the guard is attached, setTerminal and setTerminals of the native model reject an edge that would close a cycle before the terminal change is
+ * executed, and the {@link Listener}s are notified. This covers connections made through {@link MxGraphModel} and through the mxGraph handlers. New edges
+ * that mxGraph connects end by end are refused as a whole by {@link com.mxgraph.impl.view.MxGraph#setCycleGuardEnabled(boolean)}. Changes that bypass
+ * these functions, eg. adding an edge whose terminals are already set or undoing a removal, are still tracked. An edge that closes a cycle this way is
+ * kept outside the order and {@link #isAcyclic()} returns false until it is removed again; until then cycle checks fall back to an unbounded search.
+ *
+ * @see MxGraphModel#setCycleGuardEnabled(boolean)
+ */
+public class MxCycleGuard extends MxGraphModelIndex {
+
+	/**
+	 * Receives edges that have been rejected because they would close a cycle.
+	 */
+	public static interface Listener {
+
+		/**
+		 * Called instead of changing the terminals of the given edge. An edge that is connected end by end with setTerminal, as mxGraph.cellsAdded does for
+		 * new edges, keeps the end that has already been set; use {@link com.mxgraph.impl.view.MxGraph#setCycleGuardEnabled(boolean)} to refuse such edges
+		 * before they are added, or remove the edge in this callback.
+		 *
+		 * @param edge edge whose terminals were not changed
+		 * @param source requested source
+		 * @param target requested target
+		 */
+		void edgeRejected(MxICell edge, MxICell source, MxICell target);
+	}
+
+	/**
+	 * Approximate size of a tracked edge in bytes.
+	 */
+	private static final int EDGE_SIZE = 120;
+
+	/**
+	 * Approximate size of a terminal with its position in bytes.
+	 */
+	private static final int NODE_SIZE = 140;
+
+	private final List<Listener> listeners = new ArrayList<Listener>();
+
+	private JavaScriptObject state = createState(getModel().getJso());
+
+	/**
+	 * Functions of the native model that were replaced by {@link #install(JavaScriptObject)}.
+	 */
+	private JavaScriptObject replaced;
+
+	public MxCycleGuard(MxGraphModel model) {
+		super(model);
+	}
+
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	@Override public void attach() {
+		if (!isAttached()) {
+			super.attach();
+			replaced = install(getModel().getJso());
+		}
+	}
+
+	@Override public void detach() {
+		if (isAttached()) {
+			uninstall(getModel().getJso(), replaced);
+			replaced = null;
+			super.detach();
+		}
+	}
+
+	/**
+	 * Returns true if an edge from source to target would close a directed cycle, ie. if source is reachable from target. Loops are cycles.
+	 *
+	 * @param source source of the new edge
+	 * @param target target of the new edge
+	 * @return true if the edge would close a cycle
+	 */
+	public boolean wouldCreateCycle(MxICell source, MxICell target) {
+		return wouldCreateCycle(state, null, source.getJso(), target.getJso());
+	}
+
+	/**
+	 * Returns true and notifies the {@link Listener}s if connecting the given edge from source to target would close a directed cycle. The current
+	 * terminals of the edge are ignored. This is used to refuse edges before they are added, see {@link com.mxgraph.impl.view.MxGraph#setCycleGuardEnabled(boolean)}.
+	 *
+	 * @param edge new or existing edge
+	 * @param source requested source
+	 * @param target requested target
+	 * @return true if the edge must not be connected
+	 */
+	public boolean rejectEdge(MxICell edge, MxICell source, MxICell target) {
+		if (wouldCreateCycle(state, edge.getJso(), source.getJso(), target.getJso())) {
+			fireEdgeRejected(edge.getJso(), source.getJso(), target.getJso());
+			return true;
+		}
+
+		return false;
+	}
+
+	private static native boolean wouldCreateCycle(JavaScriptObject state, JavaScriptObject edge, JavaScriptObject source, JavaScriptObject target) /*-{
+		return state.check(edge, source, target);
+	}-*/;
+
+	/**
+	 * Returns true if all tracked edges are part of the topological order, ie. the model contains no cycle.
+	 *
+	 * @return true if the model is acyclic
+	 */
+	public native boolean isAcyclic() /*-{
+		return this.@com.mxgraph.impl.model.MxCycleGuard::state.unorderedCount == 0;
+	}-*/;
+
+	@Override public native int getMemoryEstimate() /*-{
+		var state = this.@com.mxgraph.impl.model.MxCycleGuard::state;
+		return state.edgeCount * @com.mxgraph.impl.model.MxCycleGuard::EDGE_SIZE + state.nodeCount * @com.mxgraph.impl.model.MxCycleGuard::NODE_SIZE;
+	}-*/;
+
+	@Override protected void clear() {
+		state = createState(getModel().getJso());
+	}
+
+	@Override protected void rebuild() {
+		state = createState(getModel().getJso());
+		process(state, getModel().getJso(), null);
+	}
+
+	@Override protected void processChange(JavaScriptObject change) {
+		JavaScriptObject cell = getChangedCell(change);
+
+		if (cell != null) {
+			process(state, getModel().getJso(), cell);
+		}
+	}
+
+	private void fireEdgeRejected(JavaScriptObject edge, JavaScriptObject source, JavaScriptObject target) {
+		for (Listener listener : new ArrayList<Listener>(listeners)) {
+			listener.edgeRejected((MxICell) WrapperUtils.wrap(edge), (MxICell) WrapperUtils.wrap(source), (MxICell) WrapperUtils.wrap(target));
+		}
+	}
+
+	/**
+	 * Wraps setTerminal and setTerminals of the given native model, including overrides of subclasses or of the instance, with functions that reject
+	 * cycle-closing edges. Returns the replaced functions for {@link #uninstall(JavaScriptObject, JavaScriptObject)}.
+	 */
+	private native JavaScriptObject install(JavaScriptObject modelJS) /*-{
+		var self = this;
+		var replaced = {
+			setTerminal : modelJS.setTerminal,
+			setTerminals : modelJS.setTerminals,
+			ownSetTerminal : modelJS.hasOwnProperty('setTerminal'),
+			ownSetTerminals : modelJS.hasOwnProperty('setTerminals')
+		};
+
+		var reject = function(state, edge, source, target) {
+			if (state.bypass || source == null || target == null || !state.check(edge, source, target)) {
+				return false;
+			}
+
+			self.@com.mxgraph.impl.model.MxCycleGuard::fireEdgeRejected(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(edge, source, target);
+
+			return true;
+		};
+
+		modelJS.setTerminal = function(edge, terminal, isSource) {
+			var state = self.@com.mxgraph.impl.model.MxCycleGuard::state;
+			var source = isSource ? terminal : this.getTerminal(edge, true);
+			var target = isSource ? this.getTerminal(edge, false) : terminal;
+
+			if (reject(state, edge, source, target)) {
+				return this.getTerminal(edge, isSource);
+			}
+
+			return replaced.setTerminal.apply(this, arguments);
+		};
+
+		// Checks the final pair once, the intermediate state after the first end has been set may contain a cycle that the second end removes
+		modelJS.setTerminals = function(edge, source, target) {
+			var state = self.@com.mxgraph.impl.model.MxCycleGuard::state;
+
+			if (!reject(state, edge, source, target)) {
+				var bypass = state.bypass;
+				state.bypass = true;
+
+				try {
+					replaced.setTerminals.apply(this, arguments);
+				} finally {
+					state.bypass = bypass;
+				}
+			}
+		};
+
+		return replaced;
+	}-*/;
+
+	/**
+	 * Restores the functions of the native model that were replaced by {@link #install(JavaScriptObject)}.
+	 */
+	private static native void uninstall(JavaScriptObject modelJS, JavaScriptObject replaced) /*-{
+		if (replaced.ownSetTerminal) {
+			modelJS.setTerminal = replaced.setTerminal;
+		} else {
+			delete modelJS.setTerminal;
+		}
+
+		if (replaced.ownSetTerminals) {
+			modelJS.setTerminals = replaced.setTerminals;
+		} else {
+			delete modelJS.setTerminals;
+		}
+	}-*/;
+
+	/**
+	 * Re-derives the edges in the subtree of the given cell, or of all cells if cell is null.
+	 */
+	private static native void process(JavaScriptObject state, JavaScriptObject model, JavaScriptObject cell) /*-{
+		var start = (cell != null) ? cell : model.getRoot();
+
+		if (start != null) {
+			state.process(start);
+		}
+	}-*/;
+
+	private static native JavaScriptObject createState(JavaScriptObject model) /*-{
+		var state = {
+			// Source and target ids and ordered flag per edge id
+			edges : {},
+			// Successor and predecessor counts per terminal id for ordered edges
+			outgoing : {},
+			incoming : {},
+			// Successor counts per terminal id for edges that close a cycle
+			unordered : {},
+			// Ids of the edges that close a cycle
+			unorderedEdges : {},
+			// Position in the topological order and number of edges per terminal id
+			ord : {},
+			degree : {},
+			nextOrd : 0,
+			edgeCount : 0,
+			nodeCount : 0,
+			unorderedCount : 0,
+			bypass : false
+		};
+
+		var idOf = function(cell) {
+			return $wnd.mxObjectIdentity.get(cell);
+		};
+
+		var addArc = function(map, a, b) {
+			var arcs = map[a];
+
+			if (arcs == null) {
+				arcs = {};
+				map[a] = arcs;
+			}
+
+			arcs[b] = (arcs[b] || 0) + 1;
+		};
+
+		var removeArc = function(map, a, b) {
+			var arcs = map[a];
+
+			if (--arcs[b] == 0) {
+				delete arcs[b];
+			}
+		};
+
+		var retain = function(id) {
+			if (state.ord[id] == null) {
+				state.ord[id] = state.nextOrd++;
+				state.degree[id] = 0;
+				state.nodeCount++;
+			}
+
+			state.degree[id]++;
+		};
+
+		var release = function(id) {
+			if (--state.degree[id] == 0) {
+				delete state.ord[id];
+				delete state.degree[id];
+				delete state.outgoing[id];
+				delete state.incoming[id];
+				delete state.unordered[id];
+				state.nodeCount--;
+			}
+		};
+
+		// Depth-first search from start over the arcs in maps that only enters accepted terminals. Returns null if goal is reached or the visited
+		// terminals otherwise. The arc of the ignored edge is skipped if it is the only arc between its terminals.
+		var search = function(maps, start, goal, accept, ignore) {
+			var visited = {};
+			var stack = [ start ];
+			var result = [];
+			visited[start] = true;
+
+			while (stack.length > 0) {
+				var v = stack.pop();
+				result.push(v);
+
+				for ( var m = 0; m < maps.length; m++) {
+					var arcs = maps[m][v];
+
+					for ( var w in arcs) {
+						if (ignore != null && maps[m] == ignore.map && v == ignore.source && w == ignore.target && arcs[w] == 1) {
+							continue;
+						}
+
+						if (w == goal) {
+							return null;
+						}
+
+						if (!visited[w] && accept(w)) {
+							visited[w] = true;
+							stack.push(w);
+						}
+					}
+				}
+			}
+
+			return result;
+		};
+
+		var byOrd = function(a, b) {
+			return state.ord[a] - state.ord[b];
+		};
+
+		// Inserts an edge into the order, returns false if it closes a cycle
+		var insert = function(source, target) {
+			if (source == target) {
+				return false;
+			}
+
+			var lb = state.ord[target];
+			var ub = state.ord[source];
+
+			if (lb < ub) {
+				var forward = search([ state.outgoing ], target, source, function(w) {
+					return state.ord[w] < ub;
+				}, null);
+
+				if (forward == null) {
+					return false;
+				}
+
+				var backward = search([ state.incoming ], source, null, function(w) {
+					return state.ord[w] > lb;
+				}, null);
+
+				// Moves the terminals that reach the source before the terminals reachable from the target, reusing their positions
+				forward.sort(byOrd);
+				backward.sort(byOrd);
+				var nodes = backward.concat(forward);
+				var positions = [];
+
+				for ( var i = 0; i < nodes.length; i++) {
+					positions.push(state.ord[nodes[i]]);
+				}
+
+				positions.sort(function(a, b) {
+					return a - b;
+				});
+
+				for ( var i = 0; i < nodes.length; i++) {
+					state.ord[nodes[i]] = positions[i];
+				}
+			}
+
+			addArc(state.outgoing, source, target);
+			addArc(state.incoming, target, source);
+
+			return true;
+		};
+
+		var removeEdge = function(id) {
+			var edge = state.edges[id];
+
+			if (edge.ordered) {
+				removeArc(state.outgoing, edge.source, edge.target);
+				removeArc(state.incoming, edge.target, edge.source);
+			} else {
+				removeArc(state.unordered, edge.source, edge.target);
+				delete state.unorderedEdges[id];
+				state.unorderedCount--;
+			}
+
+			release(edge.source);
+			release(edge.target);
+			delete state.edges[id];
+			state.edgeCount--;
+		};
+
+		var addEdge = function(id, source, target) {
+			retain(source);
+			retain(target);
+			var ordered = insert(source, target);
+
+			if (!ordered) {
+				addArc(state.unordered, source, target);
+				state.unorderedEdges[id] = true;
+				state.unorderedCount++;
+			}
+
+			state.edges[id] = {
+				source : source,
+				target : target,
+				ordered : ordered
+			};
+			state.edgeCount++;
+		};
+
+		var isConnected = function(cell) {
+			return cell != null && model.contains(cell);
+		};
+
+		// Returns true if the edge was removed or changed
+		var update = function(edge) {
+			var id = idOf(edge);
+			var old = state.edges[id];
+			var source = model.getTerminal(edge, true);
+			var target = model.getTerminal(edge, false);
+			var present = model.contains(edge) && isConnected(source) && isConnected(target);
+			var sourceId = present ? idOf(source) : null;
+			var targetId = present ? idOf(target) : null;
+
+			if (old != null && old.source == sourceId && old.target == targetId) {
+				return false;
+			}
+
+			if (old != null) {
+				removeEdge(id);
+			}
+
+			if (present) {
+				addEdge(id, sourceId, targetId);
+			}
+
+			return old != null;
+		};
+
+		// Re-derives the edges in the subtree of the given cell and the edges connected to its vertices
+		state.process = function(cell) {
+			var removed = false;
+
+			@com.mxgraph.impl.model.MxGraphModelIndex::visitSubtree(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(model, cell, function(tmp) {
+				if (model.isEdge(tmp)) {
+					removed = update(tmp) || removed;
+				}
+
+				var edgeCount = model.getEdgeCount(tmp);
+
+				for ( var i = 0; i < edgeCount; i++) {
+					removed = update(model.getEdgeAt(tmp, i)) || removed;
+				}
+			});
+
+			// Removals may have broken the cycles of unordered edges
+			if (removed && state.unorderedCount > 0) {
+				for ( var id in state.unorderedEdges) {
+					var edge = state.edges[id];
+
+					if (insert(edge.source, edge.target)) {
+						removeArc(state.unordered, edge.source, edge.target);
+						delete state.unorderedEdges[id];
+						state.unorderedCount--;
+						edge.ordered = true;
+					}
+				}
+			}
+		};
+
+		// Returns true if an edge from source to target closes a cycle, ignoring the current terminals of the given edge
+		state.check = function(edge, source, target) {
+			var sourceId = idOf(source);
+			var targetId = idOf(target);
+
+			if (sourceId == targetId) {
+				return true;
+			}
+
+			var ub = state.ord[sourceId];
+			var lb = state.ord[targetId];
+
+			if (ub == null || lb == null) {
+				return false;
+			}
+
+			var old = (edge != null) ? state.edges[idOf(edge)] : null;
+			var ignore = null;
+
+			if (old != null) {
+				ignore = {
+					map : old.ordered ? state.outgoing : state.unordered,
+					source : old.source,
+					target : old.target
+				};
+			}
+
+			if (state.unorderedCount == 0) {
+				return lb < ub && search([ state.outgoing ], targetId, sourceId, function(w) {
+					return state.ord[w] < ub;
+				}, ignore) == null;
+			}
+
+			return search([ state.outgoing, state.unordered ], targetId, sourceId, function(w) {
+				return true;
+			}, ignore) == null;
+		};
+
+		return state;
+	}-*/;
+}
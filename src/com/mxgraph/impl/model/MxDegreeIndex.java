@@ -0,0 +1,194 @@
+package com.mxgraph.impl.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Incoming and outgoing edge counters per terminal, so that {@link #getDirectedEdgeCount(MxICell, boolean, MxICell)} takes constant time instead of
+ * scanning the edges of the cell.
+ *
+ * Like {@link MxEdgeIndex}, the index remembers the terminals every edge is counted for and re-derives them for the edges affected by child and terminal
+ * changes. An edge is counted while it is contained in the model; loops are counted as incoming and outgoing edge of their terminal, as in
+ * mxGraphModel.getDirectedEdgeCount.
+ *
+ * @see MxGraphModel#setDegreeIndexEnabled(boolean)
+ */
+public class MxDegreeIndex extends MxGraphModelIndex {
+
+	/**
+	 * Approximate size of a counted edge in bytes.
+	 */
+	private static final int EDGE_SIZE = 72;
+
+	/**
+	 * Approximate size of the counters of a terminal in bytes.
+	 */
+	private static final int TERMINAL_SIZE = 56;
+
+	private JavaScriptObject state = createState();
+
+	public MxDegreeIndex(MxGraphModel model) {
+		super(model);
+	}
+
+	/**
+	 * Returns the number of edges that have the given cell as their target.
+	 *
+	 * @param cell terminal
+	 * @return number of incoming edges
+	 */
+	public int getInDegree(MxICell cell) {
+		return getDirectedEdgeCount(state, cell.getJso(), false, null);
+	}
+
+	/**
+	 * Returns the number of edges that have the given cell as their source.
+	 *
+	 * @param cell terminal
+	 * @return number of outgoing edges
+	 */
+	public int getOutDegree(MxICell cell) {
+		return getDirectedEdgeCount(state, cell.getJso(), true, null);
+	}
+
+	/**
+	 * Returns the number of incoming or outgoing edges, ignoring the given edge.
+	 *
+	 * @param cell MxICell whose edge count should be returned.
+	 * @param outgoing Boolean that specifies if the number of outgoing or incoming edges should be returned.
+	 * @param ignoredEdge MxICell that represents an edge to be ignored.
+	 * @return number of edges
+	 */
+	public int getDirectedEdgeCount(MxICell cell, boolean outgoing, MxICell ignoredEdge) {
+		return getDirectedEdgeCount(state, cell.getJso(), outgoing, (ignoredEdge != null) ? ignoredEdge.getJso() : null);
+	}
+
+	@Override public native int getMemoryEstimate() /*-{
+		var state = this.@com.mxgraph.impl.model.MxDegreeIndex::state;
+		return state.edgeCount * @com.mxgraph.impl.model.MxDegreeIndex::EDGE_SIZE + state.terminalCount * @com.mxgraph.impl.model.MxDegreeIndex::TERMINAL_SIZE;
+	}-*/;
+
+	@Override protected void clear() {
+		state = createState();
+	}
+
+	@Override protected void rebuild() {
+		state = createState();
+		index(state, getModel().getJso(), null);
+	}
+
+	@Override protected void processChange(JavaScriptObject change) {
+		JavaScriptObject cell = getChangedCell(change);
+
+		if (cell != null) {
+			index(state, getModel().getJso(), cell);
+		}
+	}
+
+	private static native JavaScriptObject createState() /*-{
+		return {
+			// Terminal ids each edge is counted for
+			edges : {},
+			// Counters per terminal id
+			degrees : {},
+			edgeCount : 0,
+			terminalCount : 0
+		};
+	}-*/;
+
+	/**
+	 * Re-derives the counted terminals of the edges in the subtree of the given cell, or of all cells if cell is null.
+	 */
+	private static native void index(JavaScriptObject state, JavaScriptObject model, JavaScriptObject cell) /*-{
+		var count = function(terminalId, field, delta) {
+			var degree = state.degrees[terminalId];
+
+			if (degree == null) {
+				degree = {
+					incoming : 0,
+					outgoing : 0
+				};
+				state.degrees[terminalId] = degree;
+				state.terminalCount++;
+			}
+
+			degree[field] += delta;
+
+			if (degree.incoming == 0 && degree.outgoing == 0) {
+				delete state.degrees[terminalId];
+				state.terminalCount--;
+			}
+		};
+
+		var update = function(edge, present) {
+			var id = $wnd.mxObjectIdentity.get(edge);
+			var old = state.edges[id];
+			var source = present ? model.getTerminal(edge, true) : null;
+			var target = present ? model.getTerminal(edge, false) : null;
+			var sourceId = (source != null) ? $wnd.mxObjectIdentity.get(source) : null;
+			var targetId = (target != null) ? $wnd.mxObjectIdentity.get(target) : null;
+
+			if (old != null && old.source == sourceId && old.target == targetId) {
+				return;
+			}
+
+			if (old != null) {
+				if (old.source != null) {
+					count(old.source, 'outgoing', -1);
+				}
+
+				if (old.target != null) {
+					count(old.target, 'incoming', -1);
+				}
+
+				delete state.edges[id];
+				state.edgeCount--;
+			}
+
+			if (sourceId != null || targetId != null) {
+				if (sourceId != null) {
+					count(sourceId, 'outgoing', 1);
+				}
+
+				if (targetId != null) {
+					count(targetId, 'incoming', 1);
+				}
+
+				state.edges[id] = {
+					source : sourceId,
+					target : targetId
+				};
+				state.edgeCount++;
+			}
+		};
+
+		var start = (cell != null) ? cell : model.getRoot();
+
+		if (start == null) {
+			return;
+		}
+
+		var present = cell == null || model.contains(start);
+		@com.mxgraph.impl.model.MxGraphModelIndex::visitSubtree(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(model, start, function(tmp) {
+			if (model.isEdge(tmp)) {
+				update(tmp, present);
+			}
+		});
+	}-*/;
+
+	private static native int getDirectedEdgeCount(JavaScriptObject state, JavaScriptObject cell, boolean outgoing, JavaScriptObject ignoredEdge) /*-{
+		var id = $wnd.mxObjectIdentity.get(cell);
+		var degree = state.degrees[id];
+		var result = (degree != null) ? (outgoing ? degree.outgoing : degree.incoming) : 0;
+
+		if (ignoredEdge != null && result > 0) {
+			var ignored = state.edges[$wnd.mxObjectIdentity.get(ignoredEdge)];
+
+			if (ignored != null && (outgoing ? ignored.source : ignored.target) == id) {
+				result--;
+			}
+		}
+
+		return result;
+	}-*/;
+}
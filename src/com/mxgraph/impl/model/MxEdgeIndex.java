@@ -0,0 +1,192 @@
+package com.mxgraph.impl.model;
+
+import java.util.List;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.impl.util.WrapperUtils;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Hash index of the edges in a model keyed by their (source, target) terminal pair, so that {@link #getEdgesBetween(MxICell, MxICell, boolean)} runs in
+ * constant expected time instead of scanning the edges of one of the terminals.
+ *
+ * Terminals are identified by mxObjectIdentity. An edge is indexed while it is contained in the model and has both terminals set; for every edge the index
+ * remembers its current key, so processing a change re-derives the key of the affected edges instead of depending on the order of the changes.
+ *
+ * @see MxGraphModel#setEdgeIndexEnabled(boolean)
+ */
+public class MxEdgeIndex extends MxGraphModelIndex {
+
+	/**
+	 * Approximate size of a bucket (hash entry, key string and array header) in bytes.
+	 */
+	private static final int BUCKET_SIZE = 96;
+
+	/**
+	 * Approximate size of an indexed edge (array slot and reverse key entry) in bytes.
+	 */
+	private static final int EDGE_SIZE = 56;
+
+	private JavaScriptObject state = createState();
+
+	public MxEdgeIndex(MxGraphModel model) {
+		super(model);
+	}
+
+	/**
+	 * Returns all edges between the given source and target pair. If directed is true, then only edges from the source to the target are returned, otherwise,
+	 * all edges between the two cells are returned.
+	 *
+	 * @param source {@link MxICell} that defines the source terminal of the edge to be returned.
+	 * @param target {@link MxICell} that defines the target terminal of the edge to be returned.
+	 * @param directed boolean that specifies if the direction of the edge should be taken into account.
+	 * @return list of edges
+	 */
+	public List<MxICell> getEdgesBetween(MxICell source, MxICell target, boolean directed) {
+		return WrapperUtils.wrapList(getEdgesBetween(state, source.getJso(), target.getJso(), directed));
+	}
+
+	/**
+	 * Returns true if there is at least one edge between the given source and target pair.
+	 *
+	 * @param source source terminal
+	 * @param target target terminal
+	 * @param directed if false, edges from target to source count as well
+	 * @return true if the terminals are connected
+	 */
+	public boolean hasEdgeBetween(MxICell source, MxICell target, boolean directed) {
+		return hasEdgeBetween(state, source.getJso(), target.getJso(), directed);
+	}
+
+	/**
+	 * Returns the number of indexed edges.
+	 *
+	 * @return number of edges
+	 */
+	public native int size() /*-{
+		return this.@com.mxgraph.impl.model.MxEdgeIndex::state.edgeCount;
+	}-*/;
+
+	@Override public native int getMemoryEstimate() /*-{
+		var state = this.@com.mxgraph.impl.model.MxEdgeIndex::state;
+		return state.bucketCount * @com.mxgraph.impl.model.MxEdgeIndex::BUCKET_SIZE + state.edgeCount * @com.mxgraph.impl.model.MxEdgeIndex::EDGE_SIZE;
+	}-*/;
+
+	@Override protected void clear() {
+		state = createState();
+	}
+
+	@Override protected void rebuild() {
+		state = createState();
+		index(state, getModel().getJso(), null, true);
+	}
+
+	@Override protected void processChange(JavaScriptObject change) {
+		JavaScriptObject cell = getChangedCell(change);
+
+		if (cell != null) {
+			index(state, getModel().getJso(), cell, false);
+		}
+	}
+
+	private static native JavaScriptObject createState() /*-{
+		return {
+			buckets : {},
+			keys : {},
+			bucketCount : 0,
+			edgeCount : 0
+		};
+	}-*/;
+
+	/**
+	 * Re-derives the keys of the edges in the subtree of the given cell, or of all cells when root is true.
+	 */
+	private static native void index(JavaScriptObject state, JavaScriptObject model, JavaScriptObject cell, boolean root) /*-{
+		var update = function(edge, present) {
+			var id = $wnd.mxObjectIdentity.get(edge);
+			var oldKey = state.keys[id];
+			var newKey = null;
+
+			if (present) {
+				var source = model.getTerminal(edge, true);
+				var target = model.getTerminal(edge, false);
+
+				if (source != null && target != null) {
+					newKey = $wnd.mxObjectIdentity.get(source) + '|' + $wnd.mxObjectIdentity.get(target);
+				}
+			}
+
+			if (oldKey == newKey) {
+				return;
+			}
+
+			if (oldKey != null) {
+				var bucket = state.buckets[oldKey];
+				var idx = bucket.indexOf(edge);
+
+				if (idx >= 0) {
+					bucket.splice(idx, 1);
+				}
+
+				if (bucket.length == 0) {
+					delete state.buckets[oldKey];
+					state.bucketCount--;
+				}
+
+				delete state.keys[id];
+				state.edgeCount--;
+			}
+
+			if (newKey != null) {
+				var bucket = state.buckets[newKey];
+
+				if (bucket == null) {
+					bucket = [];
+					state.buckets[newKey] = bucket;
+					state.bucketCount++;
+				}
+
+				bucket.push(edge);
+				state.keys[id] = newKey;
+				state.edgeCount++;
+			}
+		};
+
+		var start = root ? model.getRoot() : cell;
+
+		if (start == null) {
+			return;
+		}
+
+		var present = root || model.contains(start);
+		@com.mxgraph.impl.model.MxGraphModelIndex::visitSubtree(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(model, start, function(tmp) {
+			if (model.isEdge(tmp)) {
+				update(tmp, present);
+			}
+		});
+	}-*/;
+
+	private static native JavaScriptObject getEdgesBetween(JavaScriptObject state, JavaScriptObject source, JavaScriptObject target, boolean directed) /*-{
+		var sourceId = $wnd.mxObjectIdentity.get(source);
+		var targetId = $wnd.mxObjectIdentity.get(target);
+		var forward = state.buckets[sourceId + '|' + targetId];
+		var result = (forward != null) ? forward.slice() : [];
+
+		if (!directed && sourceId != targetId) {
+			var backward = state.buckets[targetId + '|' + sourceId];
+
+			if (backward != null) {
+				result = result.concat(backward);
+			}
+		}
+
+		return result;
+	}-*/;
+
+	private static native boolean hasEdgeBetween(JavaScriptObject state, JavaScriptObject source, JavaScriptObject target, boolean directed) /*-{
+		var sourceId = $wnd.mxObjectIdentity.get(source);
+		var targetId = $wnd.mxObjectIdentity.get(target);
+
+		return state.buckets[sourceId + '|' + targetId] != null || (!directed && state.buckets[targetId + '|' + sourceId] != null);
+	}-*/;
+}
@@ -0,0 +1,119 @@
+package com.mxgraph.impl.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.impl.util.WrapperUtils;
+import com.mxgraph.jso.IJavaScriptWrapper;
+
+/**
+ * Represents the geometry of a cell. For vertices, the geometry consists of the x- and y-location, as well as the width and height. For edges, the edge
+ * either defines the source- and target-terminal, or the geometry defines the respective terminal points.
+ *
+ * The x- and y-coordinates of relative geometries are interpreted as a fraction of the parent's size for vertices, and as the position along the edge for
+ * edge labels.
+ */
+public class MxGeometry implements IJavaScriptWrapper {
+
+	private JavaScriptObject jso;
+
+	@Override public JavaScriptObject getJso() {
+		return jso;
+	}
+
+	@Override public void setJso(JavaScriptObject jso) {
+		this.jso = jso;
+	}
+
+	private native JavaScriptObject createJso(double x, double y, double width, double height) /*-{
+		return new $wnd.mxGeometry(x, y, width, height);
+	}-*/;
+
+	protected MxGeometry(JavaScriptObject jso) {
+		this.jso = jso;
+	}
+
+	/**
+	 * Constructs a new geometry with all values set to 0.
+	 */
+	public MxGeometry() {
+		this(0, 0, 0, 0);
+	}
+
+	/**
+	 * Constructs a new geometry using the given bounds.
+	 *
+	 * @param x x-coordinate of the new geometry
+	 * @param y y-coordinate of the new geometry
+	 * @param width width of the new geometry
+	 * @param height height of the new geometry
+	 */
+	public MxGeometry(double x, double y, double width, double height) {
+		jso = createJso(x, y, width, height);
+		WrapperUtils.register(this);
+	}
+
+	public native double getX() /*-{
+		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).x;
+	}-*/;
+
+	public native void setX(double x) /*-{
+		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).x = x;
+	}-*/;
+
+	public native double getY() /*-{
+		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).y;
+	}-*/;
+
+	public native void setY(double y) /*-{
+		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).y = y;
+	}-*/;
+
+	public native double getWidth() /*-{
+		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).width;
+	}-*/;
+
+	public native void setWidth(double width) /*-{
+		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).width = width;
+	}-*/;
+
+	public native double getHeight() /*-{
+		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).height;
+	}-*/;
+
+	public native void setHeight(double height) /*-{
+		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).height = height;
+	}-*/;
+
+	/**
+	 * Returns true if the coordinates are relative to the parent (vertices) or describe a position along the edge (edge labels).
+	 *
+	 * @return relative state
+	 */
+	public native boolean isRelative() /*-{
+		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).relative == true;
+	}-*/;
+
+	public native void setRelative(boolean relative) /*-{
+		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).relative = relative;
+	}-*/;
+
+	/**
+	 * Translates the geometry by the specified amount. That is, x and y of the geometry, the sourcePoint, targetPoint and all elements of points are
+	 * translated by the given amount. Relative geometries are not translated.
+	 *
+	 * @param dx x-coordinate of the translation
+	 * @param dy y-coordinate of the translation
+	 */
+	public native void translate(double dx, double dy) /*-{
+		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).translate(dx, dy);
+	}-*/;
+
+	/**
+	 * Returns a clone of this geometry.
+	 *
+	 * @return clone
+	 */
+	public native MxGeometry clone() /*-{
+		var geometryJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).clone();
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(geometryJS);
+	}-*/;
+}
@@ -0,0 +1,637 @@
+package com.mxgraph.impl.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.typedarrays.shared.Int32Array;
+
+/**
+ * Compressed adjacency snapshot of the vertices and edges of a model for graph algorithms, see {@link MxGraphModel#createAnalysis(com.mxgraph.jso.MxICell, boolean)}.
+ *
+ * The snapshot numbers the vertices from 0 to n - 1 and stores the outgoing edges of all vertices in compressed sparse row form: the targets of vertex v are
+ * targets[offsets[v]] to targets[offsets[v + 1] - 1]. All algorithms run natively on these arrays and return vertex indices, which can be translated into
+ * cell Ids with {@link #getIds(Int32Array)}. The snapshot does not follow later changes of the model; create a new one after the model has changed.
+ *
+ * Edge weights are read from the style of the edge (key=value) or, if the style does not define the key, from the attribute of an XML user object. Edges
+ * without a numeric weight have weight 1, negative weights are treated as 0. Weights are parsed once per key and cached.
+ */
+public class MxGraphAnalysis {
+
+	private final JavaScriptObject graph;
+
+	MxGraphAnalysis(JavaScriptObject graph) {
+		this.graph = graph;
+	}
+
+	/**
+	 * Builds the snapshot of the vertices in the subtree of the given parent and the edges between them.
+	 */
+	static native MxGraphAnalysis create(JavaScriptObject model, JavaScriptObject parent, boolean directed) /*-{
+		var start = (parent != null) ? parent : model.getRoot();
+		var vertices = [];
+		var indices = {};
+		var stack = (start != null) ? [ start ] : [];
+
+		while (stack.length > 0) {
+			var tmp = stack.pop();
+
+			if (model.isVertex(tmp)) {
+				indices[$wnd.mxObjectIdentity.get(tmp)] = vertices.length;
+				vertices.push(tmp);
+			}
+
+			for ( var i = model.getChildCount(tmp) - 1; i >= 0; i--) {
+				stack.push(model.getChildAt(tmp, i));
+			}
+		}
+
+		var n = vertices.length;
+
+		// Collects each edge once from its source
+		var sources = [];
+		var targets = [];
+		var edges = [];
+
+		for ( var v = 0; v < n; v++) {
+			var edgeCount = model.getEdgeCount(vertices[v]);
+
+			for ( var i = 0; i < edgeCount; i++) {
+				var edge = model.getEdgeAt(vertices[v], i);
+
+				if (model.getTerminal(edge, true) == vertices[v]) {
+					var target = model.getTerminal(edge, false);
+					var w = (target != null) ? indices[$wnd.mxObjectIdentity.get(target)] : null;
+
+					if (w != null) {
+						sources.push(v);
+						targets.push(w);
+						edges.push(edge);
+					}
+				}
+			}
+		}
+
+		var m = edges.length;
+		var arcs = directed ? m : 2 * m;
+		var offsets = new Int32Array(n + 1);
+		var adjacency = new Int32Array(arcs);
+		var arcEdges = new Int32Array(arcs);
+
+		for ( var i = 0; i < m; i++) {
+			offsets[sources[i] + 1]++;
+
+			if (!directed) {
+				offsets[targets[i] + 1]++;
+			}
+		}
+
+		for ( var v = 0; v < n; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+
+		var next = offsets.slice ? offsets.slice(0, n) : Array.prototype.slice.call(offsets, 0, n);
+
+		for ( var i = 0; i < m; i++) {
+			var k = next[sources[i]]++;
+			adjacency[k] = targets[i];
+			arcEdges[k] = i;
+
+			if (!directed) {
+				k = next[targets[i]]++;
+				adjacency[k] = sources[i];
+				arcEdges[k] = i;
+			}
+		}
+
+		var ids = new Array(n);
+
+		for ( var v = 0; v < n; v++) {
+			ids[v] = vertices[v].getId();
+		}
+
+		return @com.mxgraph.impl.model.MxGraphAnalysis::new(Lcom/google/gwt/core/client/JavaScriptObject;)({
+			model : model,
+			directed : directed,
+			vertices : vertices,
+			ids : ids,
+			index : null,
+			edges : edges,
+			offsets : offsets,
+			targets : adjacency,
+			arcEdges : arcEdges,
+			weights : {}
+		});
+	}-*/;
+
+	public native boolean isDirected() /*-{
+		return this.@com.mxgraph.impl.model.MxGraphAnalysis::graph.directed;
+	}-*/;
+
+	public native int getVertexCount() /*-{
+		return this.@com.mxgraph.impl.model.MxGraphAnalysis::graph.vertices.length;
+	}-*/;
+
+	public native int getEdgeCount() /*-{
+		return this.@com.mxgraph.impl.model.MxGraphAnalysis::graph.edges.length;
+	}-*/;
+
+	/**
+	 * Returns the index of the vertex with the given Id, or -1 if it is not part of the snapshot.
+	 *
+	 * @param id Id of a vertex
+	 * @return index or -1
+	 */
+	public native int indexOf(String id) /*-{
+		var graph = this.@com.mxgraph.impl.model.MxGraphAnalysis::graph;
+
+		if (graph.index == null) {
+			graph.index = {};
+
+			for ( var i = 0; i < graph.ids.length; i++) {
+				graph.index['$' + graph.ids[i]] = i;
+			}
+		}
+
+		var index = graph.index['$' + id];
+
+		return (index != null) ? index : -1;
+	}-*/;
+
+	/**
+	 * Returns the Id of the vertex with the given index.
+	 *
+	 * @param index vertex index
+	 * @return Id
+	 */
+	public native String getId(int index) /*-{
+		return this.@com.mxgraph.impl.model.MxGraphAnalysis::graph.ids[index];
+	}-*/;
+
+	/**
+	 * Translates vertex indices into cell Ids.
+	 *
+	 * @param indices vertex indices
+	 * @return Ids in the same order
+	 */
+	public native JsArrayString getIds(Int32Array indices) /*-{
+		var ids = this.@com.mxgraph.impl.model.MxGraphAnalysis::graph.ids;
+		var result = new Array(indices.length);
+
+		for ( var i = 0; i < indices.length; i++) {
+			result[i] = ids[indices[i]];
+		}
+
+		return result;
+	}-*/;
+
+	/**
+	 * Returns the vertices that are reachable from the given vertex in breadth-first order, starting with the vertex itself.
+	 *
+	 * @param start index of the start vertex
+	 * @return vertex indices in visiting order
+	 */
+	public native Int32Array bfs(int start) /*-{
+		var graph = this.@com.mxgraph.impl.model.MxGraphAnalysis::graph;
+		var offsets = graph.offsets, targets = graph.targets;
+		var visited = new Uint8Array(graph.vertices.length);
+		var queue = new Int32Array(graph.vertices.length);
+		var head = 0, tail = 0;
+
+		queue[tail++] = start;
+		visited[start] = 1;
+
+		while (head < tail) {
+			var v = queue[head++];
+
+			for ( var k = offsets[v]; k < offsets[v + 1]; k++) {
+				var w = targets[k];
+
+				if (!visited[w]) {
+					visited[w] = 1;
+					queue[tail++] = w;
+				}
+			}
+		}
+
+		return queue.subarray(0, tail);
+	}-*/;
+
+	/**
+	 * Returns the vertices that are reachable from the given vertex in depth-first pre-order, starting with the vertex itself.
+	 *
+	 * @param start index of the start vertex
+	 * @return vertex indices in visiting order
+	 */
+	public native Int32Array dfs(int start) /*-{
+		var graph = this.@com.mxgraph.impl.model.MxGraphAnalysis::graph;
+		var offsets = graph.offsets, targets = graph.targets;
+		var n = graph.vertices.length;
+		var visited = new Uint8Array(n);
+		var order = new Int32Array(n);
+		var count = 0;
+		var stack = new Int32Array(graph.targets.length + 1);
+		var top = 0;
+
+		stack[top++] = start;
+
+		while (top > 0) {
+			var v = stack[--top];
+
+			if (visited[v]) {
+				continue;
+			}
+
+			visited[v] = 1;
+			order[count++] = v;
+
+			// Pushes the neighbours in reverse so that they are visited in order
+			for ( var k = offsets[v + 1] - 1; k >= offsets[v]; k--) {
+				if (!visited[targets[k]]) {
+					stack[top++] = targets[k];
+				}
+			}
+		}
+
+		return order.subarray(0, count);
+	}-*/;
+
+	/**
+	 * Returns the shortest path between the given vertices using Dijkstra's algorithm.
+	 *
+	 * @param source index of the first vertex
+	 * @param target index of the last vertex
+	 * @param weightKey style key or attribute name of the edge weights, or null for unit weights
+	 * @return vertex indices of the path including source and target, or an empty array if target is not reachable
+	 */
+	public Int32Array shortestPath(int source, int target, String weightKey) {
+		return shortestPath(source, target, weightKey, 0);
+	}
+
+	/**
+	 * Returns the shortest path between the given vertices using A*, with the Euclidean distance between the absolute centers of the vertices times the given
+	 * scale as the heuristic. The result is only guaranteed to be optimal if the heuristic never overestimates, that is, if the weight of every edge is at
+	 * least scale times the distance between its terminals. The centers include the origins of the parents, so nested vertices are compared in diagram
+	 * coordinates. A scale of 0 is Dijkstra's algorithm.
+	 *
+	 * @param source index of the first vertex
+	 * @param target index of the last vertex
+	 * @param weightKey style key or attribute name of the edge weights, or null for unit weights
+	 * @param heuristicScale factor for the distance heuristic
+	 * @return vertex indices of the path including source and target, or an empty array if target is not reachable
+	 */
+	public native Int32Array shortestPath(int source, int target, String weightKey, double heuristicScale) /*-{
+		var graph = this.@com.mxgraph.impl.model.MxGraphAnalysis::graph;
+		var weights = this.@com.mxgraph.impl.model.MxGraphAnalysis::getWeights(Ljava/lang/String;)(weightKey);
+		var offsets = graph.offsets, targets = graph.targets, arcEdges = graph.arcEdges;
+		var n = graph.vertices.length;
+		var dist = new Float64Array(n);
+		var prev = new Int32Array(n);
+		var done = new Uint8Array(n);
+
+		for ( var v = 0; v < n; v++) {
+			dist[v] = Infinity;
+			prev[v] = -1;
+		}
+
+		var h = function(v) {
+			return 0;
+		};
+
+		if (heuristicScale > 0) {
+			var centers = new Float64Array(2 * n);
+
+			for ( var v = 0; v < n; v++) {
+				var vertex = graph.vertices[v];
+				var geo = graph.model.getGeometry(vertex);
+				var origin = graph.model.getOrigin(graph.model.getParent(vertex));
+				centers[2 * v] = origin.x + ((geo != null) ? geo.x + geo.width / 2 : 0);
+				centers[2 * v + 1] = origin.y + ((geo != null) ? geo.y + geo.height / 2 : 0);
+			}
+
+			h = function(v) {
+				var dx = centers[2 * v] - centers[2 * target];
+				var dy = centers[2 * v + 1] - centers[2 * target + 1];
+				return heuristicScale * Math.sqrt(dx * dx + dy * dy);
+			};
+		}
+
+		// Binary heap of vertices ordered by priority, with lazy deletion of outdated entries
+		var heap = [];
+		var priorities = [];
+		var push = function(v, priority) {
+			var i = heap.length;
+			heap.push(v);
+			priorities.push(priority);
+
+			while (i > 0) {
+				var p = (i - 1) >> 1;
+
+				if (priorities[p] <= priorities[i]) {
+					break;
+				}
+
+				var tv = heap[p], tp = priorities[p];
+				heap[p] = heap[i];
+				priorities[p] = priorities[i];
+				heap[i] = tv;
+				priorities[i] = tp;
+				i = p;
+			}
+		};
+		var pop = function() {
+			var top = heap[0];
+			var lastV = heap.pop(), lastP = priorities.pop();
+
+			if (heap.length > 0) {
+				heap[0] = lastV;
+				priorities[0] = lastP;
+				var i = 0;
+
+				while (true) {
+					var l = 2 * i + 1, r = l + 1, min = i;
+
+					if (l < heap.length && priorities[l] < priorities[min]) {
+						min = l;
+					}
+
+					if (r < heap.length && priorities[r] < priorities[min]) {
+						min = r;
+					}
+
+					if (min == i) {
+						break;
+					}
+
+					var tv = heap[min], tp = priorities[min];
+					heap[min] = heap[i];
+					priorities[min] = priorities[i];
+					heap[i] = tv;
+					priorities[i] = tp;
+					i = min;
+				}
+			}
+
+			return top;
+		};
+
+		dist[source] = 0;
+		push(source, h(source));
+
+		while (heap.length > 0) {
+			var v = pop();
+
+			if (done[v]) {
+				continue;
+			}
+
+			done[v] = 1;
+
+			if (v == target) {
+				break;
+			}
+
+			for ( var k = offsets[v]; k < offsets[v + 1]; k++) {
+				var w = targets[k];
+				var d = dist[v] + weights[arcEdges[k]];
+
+				if (d < dist[w]) {
+					dist[w] = d;
+					prev[w] = v;
+					push(w, d + h(w));
+				}
+			}
+		}
+
+		return @com.mxgraph.impl.model.MxGraphAnalysis::tracePath(Lcom/google/gwt/typedarrays/shared/Int32Array;II)(prev, source, target);
+	}-*/;
+
+	/**
+	 * Returns the vertices in topological order, that is, every edge points from an earlier to a later vertex. Only meaningful for directed snapshots.
+	 *
+	 * @return vertex indices in topological order, or null if the graph contains a cycle
+	 */
+	public native Int32Array topologicalSort() /*-{
+		var graph = this.@com.mxgraph.impl.model.MxGraphAnalysis::graph;
+		var offsets = graph.offsets, targets = graph.targets;
+		var n = graph.vertices.length;
+		var inDegree = new Int32Array(n);
+		var order = new Int32Array(n);
+		var head = 0, tail = 0;
+
+		for ( var k = 0; k < targets.length; k++) {
+			inDegree[targets[k]]++;
+		}
+
+		for ( var v = 0; v < n; v++) {
+			if (inDegree[v] == 0) {
+				order[tail++] = v;
+			}
+		}
+
+		while (head < tail) {
+			var v = order[head++];
+
+			for ( var k = offsets[v]; k < offsets[v + 1]; k++) {
+				if (--inDegree[targets[k]] == 0) {
+					order[tail++] = targets[k];
+				}
+			}
+		}
+
+		return (tail == n) ? order : null;
+	}-*/;
+
+	/**
+	 * Returns the longest path by weight through a directed acyclic graph, eg. the critical path of a workflow.
+	 *
+	 * @param weightKey style key or attribute name of the edge weights, or null for unit weights
+	 * @return vertex indices of the path, or null if the graph contains a cycle
+	 */
+	public native Int32Array criticalPath(String weightKey) /*-{
+		var order = this.@com.mxgraph.impl.model.MxGraphAnalysis::topologicalSort()();
+
+		if (order == null) {
+			return null;
+		}
+
+		var graph = this.@com.mxgraph.impl.model.MxGraphAnalysis::graph;
+		var weights = this.@com.mxgraph.impl.model.MxGraphAnalysis::getWeights(Ljava/lang/String;)(weightKey);
+		var offsets = graph.offsets, targets = graph.targets, arcEdges = graph.arcEdges;
+		var n = order.length;
+		var dist = new Float64Array(n);
+		var prev = new Int32Array(n);
+		var last = -1;
+
+		for ( var v = 0; v < n; v++) {
+			prev[v] = -1;
+		}
+
+		for ( var i = 0; i < n; i++) {
+			var v = order[i];
+
+			for ( var k = offsets[v]; k < offsets[v + 1]; k++) {
+				var w = targets[k];
+				var d = dist[v] + weights[arcEdges[k]];
+
+				if (d > dist[w] || (prev[w] < 0 && d >= dist[w])) {
+					dist[w] = d;
+					prev[w] = v;
+				}
+			}
+
+			if (last < 0 || dist[v] > dist[last]) {
+				last = v;
+			}
+		}
+
+		if (last < 0) {
+			return new Int32Array(0);
+		}
+
+		var first = last;
+
+		while (prev[first] >= 0) {
+			first = prev[first];
+		}
+
+		return @com.mxgraph.impl.model.MxGraphAnalysis::tracePath(Lcom/google/gwt/typedarrays/shared/Int32Array;II)(prev, first, last);
+	}-*/;
+
+	/**
+	 * Returns the strongly connected component of every vertex using Tarjan's algorithm with an explicit stack. Components are numbered in reverse
+	 * topological order of the condensed graph.
+	 *
+	 * @return component number per vertex index
+	 */
+	public native Int32Array stronglyConnectedComponents() /*-{
+		var graph = this.@com.mxgraph.impl.model.MxGraphAnalysis::graph;
+		var offsets = graph.offsets, targets = graph.targets;
+		var n = graph.vertices.length;
+		var index = new Int32Array(n);
+		var low = new Int32Array(n);
+		var component = new Int32Array(n);
+		var onStack = new Uint8Array(n);
+		var stack = new Int32Array(n);
+		var top = 0;
+		var callStack = new Int32Array(n);
+		var edgePos = new Int32Array(n);
+		var counter = 1;
+		var components = 0;
+
+		for ( var v = 0; v < n; v++) {
+			component[v] = -1;
+		}
+
+		for ( var root = 0; root < n; root++) {
+			if (index[root] != 0) {
+				continue;
+			}
+
+			var depth = 0;
+			callStack[depth] = root;
+			edgePos[root] = offsets[root];
+			index[root] = low[root] = counter++;
+			stack[top++] = root;
+			onStack[root] = 1;
+
+			while (depth >= 0) {
+				var v = callStack[depth];
+
+				if (edgePos[v] < offsets[v + 1]) {
+					var w = targets[edgePos[v]++];
+
+					if (index[w] == 0) {
+						index[w] = low[w] = counter++;
+						stack[top++] = w;
+						onStack[w] = 1;
+						edgePos[w] = offsets[w];
+						callStack[++depth] = w;
+					} else if (onStack[w]) {
+						low[v] = Math.min(low[v], index[w]);
+					}
+				} else {
+					if (low[v] == index[v]) {
+						var w;
+
+						do {
+							w = stack[--top];
+							onStack[w] = 0;
+							component[w] = components;
+						} while (w != v);
+
+						components++;
+					}
+
+					depth--;
+
+					if (depth >= 0) {
+						var parent = callStack[depth];
+						low[parent] = Math.min(low[parent], low[v]);
+					}
+				}
+			}
+		}
+
+		return component;
+	}-*/;
+
+	private static native Int32Array tracePath(Int32Array prev, int source, int target) /*-{
+		if (source != target && prev[target] < 0) {
+			return new Int32Array(0);
+		}
+
+		var path = [];
+
+		for ( var v = target; v >= 0 && v != source; v = prev[v]) {
+			path.push(v);
+		}
+
+		path.push(source);
+		path.reverse();
+
+		return new Int32Array(path);
+	}-*/;
+
+	/**
+	 * Returns the weight of every edge for the given key.
+	 */
+	private native JavaScriptObject getWeights(String weightKey) /*-{
+		var graph = this.@com.mxgraph.impl.model.MxGraphAnalysis::graph;
+		var cacheKey = '$' + weightKey;
+		var weights = graph.weights[cacheKey];
+
+		if (weights == null) {
+			var edges = graph.edges;
+			weights = new Float64Array(edges.length);
+
+			for ( var i = 0; i < edges.length; i++) {
+				var value = null;
+
+				if (weightKey != null) {
+					var style = graph.model.getStyle(edges[i]);
+					var tokens = (style != null) ? style.split(';') : [];
+
+					for ( var j = 0; j < tokens.length; j++) {
+						var pos = tokens[j].indexOf('=');
+
+						if (pos >= 0 && tokens[j].substring(0, pos) == weightKey) {
+							value = tokens[j].substring(pos + 1);
+						}
+					}
+
+					var userObject = edges[i].value;
+
+					if (value == null && userObject != null && userObject.nodeType == $wnd.mxConstants.NODETYPE_ELEMENT) {
+						value = userObject.getAttribute(weightKey);
+					}
+				}
+
+				var weight = (value != null) ? parseFloat(value) : NaN;
+				weights[i] = isNaN(weight) ? 1 : Math.max(0, weight);
+			}
+
+			graph.weights[cacheKey] = weights;
+		}
+
+		return weights;
+	}-*/;
+}
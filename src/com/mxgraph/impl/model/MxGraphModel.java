@@ -4,10 +4,14 @@ import java.util.List;
 import java.util.Map;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.typedarrays.shared.Float64Array;
+import com.mxgraph.impl.util.JavaScriptObjectMap;
 import com.mxgraph.impl.util.WrapperUtils;
 import com.mxgraph.impl.view.MxEventSource;
 import com.mxgraph.jso.IJavaScriptWrapper;
 import com.mxgraph.jso.MxICell;
+import com.mxgraph.jso.model.MxCellBoundsJSO;
 
 /**
  * Extends {@link mxEventSource} to implement a graph model. The graph model acts as a wrapper around the cells which are in charge of storing the actual graph
@@ -118,8 +122,54 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 		boolean filter(MxICell cell);
 	}
 
+	/**
+	 * Callback for {@link MxGraphModel#traverse(MxICell, Visitor, boolean, int)}. The return value controls how the traversal proceeds.
+	 */
+	public static interface Visitor {
+
+		/**
+		 * Continues with the children of the cell, or with the next cell.
+		 */
+		int CONTINUE = 0;
+
+		/**
+		 * Skips the children of the cell. Only meaningful for pre-order traversals, where the children have not been visited yet.
+		 */
+		int SKIP = 1;
+
+		/**
+		 * Ends the traversal.
+		 */
+		int STOP = 2;
+
+		/**
+		 * Visits the given cell.
+		 *
+		 * @param cell visited cell
+		 * @param depth distance from the start cell, which has depth 0
+		 * @return one of {@link #CONTINUE}, {@link #SKIP} or {@link #STOP}
+		 */
+		int visit(MxICell cell, int depth);
+	}
+
+	private MxEdgeIndex edgeIndex;
+
+	private MxAncestryIndex ancestryIndex;
+
+	private MxSpatialIndex spatialIndex;
+
+	private MxChangeCompactor changeCompactor;
+
+	private MxStyleRegistry styleRegistry;
+
+	private MxDegreeIndex degreeIndex;
+
+	private MxComponentTracker componentTracker;
+
+	private MxCycleGuard cycleGuard;
+
 	private native JavaScriptObject createJso(JavaScriptObject root) /*-{
-		return new $wnd.MxGraphModel(root);
+		return new $wnd.mxGraphModel(root);
 	}-*/;
 
 	protected MxGraphModel() {
@@ -136,6 +186,7 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	 */
 	public MxGraphModel(MxICell root) {
 		jso = createJso(root != null ? root.getJso() : null);
+		WrapperUtils.register(this);
 	}
 
 	/**
@@ -167,6 +218,41 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).endUpdate();
 	}-*/;
 
+	/**
+	 * Callback for {@link MxGraphModel#endUpdateSliced(int, SlicedUpdateCallback)}.
+	 */
+	public static interface SlicedUpdateCallback {
+
+		/**
+		 * Called after each slice of changes has been dispatched.
+		 *
+		 * @param processed number of changes dispatched so far
+		 * @param total number of changes in the transaction
+		 */
+		void onProgress(int processed, int total);
+
+		/**
+		 * Called after all changes have been dispatched and the edit has been passed to the undo listeners.
+		 */
+		void onComplete();
+	}
+
+	/**
+	 * Ends the outermost update like {@link #endUpdate()}, but dispatches the changes to the change listeners (and thereby to the view) in slices that are
+	 * scheduled in separate frames, so that committing tens of thousands of changes does not block the browser.
+	 *
+	 * The model itself already contains all changes when this method returns; only the notification of the listeners is spread over time. Listeners of
+	 * mxEvent.CHANGE receive one event per slice with an edit that holds the changes of the slice, mxEvent.NOTIFY and mxEvent.UNDO are fired once with the
+	 * complete edit after the last slice. If this is a nested update or no changes were made, the update is ended synchronously and the callback completes
+	 * immediately.
+	 *
+	 * @param frameBudgetMillis time in milliseconds that dispatching a slice should take
+	 * @param callback optional callback for progress and completion
+	 */
+	public void endUpdateSliced(int frameBudgetMillis, SlicedUpdateCallback callback) {
+		MxSlicedUpdate.start(getJso(), frameBudgetMillis, callback);
+	}
+
 	public native MxICell getRoot() /*-{
 		var rootJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).root;
 		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(rootJS);
@@ -177,12 +263,18 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	}-*/;
 
 	/**
-	 * Gets a map of IDs mapped to cells
+	 * Gets a map of IDs mapped to cells. The map is a read-only view backed by the cells of this model, so {@link Map#get(Object)} and
+	 * {@link Map#containsKey(Object)} are constant time lookups and cells are only wrapped when they are read.
 	 *
 	 * @return map containing IDs and cells
 	 */
 	public Map<String, MxICell> getCells() {
-		return WrapperUtils.wrapMap(getCellsJS());
+		return new JavaScriptObjectMap<MxICell>(null) {
+
+			@Override protected JavaScriptObject getObject() {
+				return getCellsJS();
+			}
+		};
 	};
 
 	/**
@@ -331,6 +423,244 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 
 	}-*/;
 
+	/**
+	 * Visits the given cell and its descendants in pre-order without building an intermediate list. Cells are only wrapped when they are visited, so a
+	 * traversal that is stopped early does not touch the rest of the model.
+	 *
+	 * @param parent {@link MxICell} where the traversal starts. Default is the root.
+	 * @param visitor visitor that is invoked for each cell
+	 * @return false if the visitor stopped the traversal
+	 */
+	public boolean traverse(MxICell parent, Visitor visitor) {
+		return traverse(parent, visitor, false, -1);
+	}
+
+	/**
+	 * Visits the given cell and its descendants depth-first without building an intermediate list. Children are visited in the order of their index. The
+	 * traversal uses an explicit stack, so it is not limited by the nesting depth of the model.
+	 *
+	 * @param parent {@link MxICell} where the traversal starts. Default is the root.
+	 * @param visitor visitor that is invoked for each cell
+	 * @param postOrder if true, cells are visited after their children, otherwise before
+	 * @param maxDepth maximum depth of visited cells relative to the start cell, or -1 for no limit
+	 * @return false if the visitor stopped the traversal
+	 */
+	public native boolean traverse(MxICell parent, Visitor visitor, boolean postOrder, int maxDepth) /*-{
+		var model = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this);
+		var start = (parent != null) ? @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(parent) : model.getRoot();
+
+		if (start == null) {
+			return true;
+		}
+
+		// Parallel stacks of cells, depths and whether the children have been pushed
+		var cells = [ start ];
+		var depths = [ 0 ];
+		var expanded = [ false ];
+
+		while (cells.length > 0) {
+			var top = cells.length - 1;
+			var cell = cells[top];
+			var depth = depths[top];
+
+			if (!postOrder || expanded[top]) {
+				cells.pop();
+				depths.pop();
+				expanded.pop();
+
+				var cellJ = @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(cell);
+				var result = visitor.@com.mxgraph.impl.model.MxGraphModel.Visitor::visit(Lcom/mxgraph/jso/MxICell;I)(cellJ, depth);
+
+				if (result == @com.mxgraph.impl.model.MxGraphModel.Visitor::STOP) {
+					return false;
+				} else if (postOrder || result == @com.mxgraph.impl.model.MxGraphModel.Visitor::SKIP) {
+					continue;
+				}
+			} else {
+				expanded[top] = true;
+			}
+
+			if (maxDepth < 0 || depth < maxDepth) {
+				// Pushes the children in reverse so that they are popped in order
+				for ( var i = model.getChildCount(cell) - 1; i >= 0; i--) {
+					cells.push(model.getChildAt(cell, i));
+					depths.push(depth + 1);
+					expanded.push(false);
+				}
+			}
+		}
+
+		return true;
+	}-*/;
+
+	/**
+	 * Returns the first cell in pre-order for which the given filter returns true. The traversal ends at the first match.
+	 *
+	 * @param filter Java object with a method that takes an {@link MxICell} as an argument and returns a boolean.
+	 * @param parent Optional {@link MxICell} that is used as the root of the traversal.
+	 * @return first matching cell or null
+	 */
+	public MxICell findFirst(final Filter filter, MxICell parent) {
+		final MxICell[] result = new MxICell[1];
+
+		traverse(parent, new Visitor() {
+
+			@Override public int visit(MxICell cell, int depth) {
+				if (filter.filter(cell)) {
+					result[0] = cell;
+					return STOP;
+				}
+
+				return CONTINUE;
+			}
+		});
+
+		return result[0];
+	}
+
+	/**
+	 * Enables or disables the ancestry index. While enabled, {@link #isAncestor(MxICell, MxICell)} and
+	 * {@link #getNearestCommonAncestor(MxICell, MxICell)} take logarithmic time and {@link #getTopmostCells(List)} linear time. Disabling the index releases
+	 * its memory.
+	 *
+	 * @param enabled true to maintain the ancestry index
+	 */
+	public void setAncestryIndexEnabled(boolean enabled) {
+		if (enabled && ancestryIndex == null) {
+			ancestryIndex = new MxAncestryIndex(this);
+			ancestryIndex.attach();
+		} else if (!enabled && ancestryIndex != null) {
+			ancestryIndex.detach();
+			ancestryIndex = null;
+		}
+	}
+
+	public boolean isAncestryIndexEnabled() {
+		return ancestryIndex != null;
+	}
+
+	/**
+	 * Returns the ancestry index, eg. to query its memory estimate, or null if the index is disabled.
+	 *
+	 * @return ancestry index or null
+	 */
+	public MxAncestryIndex getAncestryIndex() {
+		return ancestryIndex;
+	}
+
+	/**
+	 * Enables or disables the spatial index, which is required by {@link #getCellsInRegion(double, double, double, double)} and
+	 * {@link #getNearestCell(double, double)}. Disabling the index releases its memory.
+	 *
+	 * @param enabled true to maintain the spatial index
+	 */
+	public void setSpatialIndexEnabled(boolean enabled) {
+		if (enabled && spatialIndex == null) {
+			spatialIndex = new MxSpatialIndex(this);
+			spatialIndex.attach();
+		} else if (!enabled && spatialIndex != null) {
+			spatialIndex.detach();
+			spatialIndex = null;
+		}
+	}
+
+	public boolean isSpatialIndexEnabled() {
+		return spatialIndex != null;
+	}
+
+	/**
+	 * Returns the spatial index, eg. to query its memory estimate, or null if the index is disabled.
+	 *
+	 * @return spatial index or null
+	 */
+	public MxSpatialIndex getSpatialIndex() {
+		return spatialIndex;
+	}
+
+	/**
+	 * Returns the visible cells whose absolute bounds intersect the given rectangle. The spatial index is enabled on first use.
+	 *
+	 * @param x x-coordinate of the region
+	 * @param y y-coordinate of the region
+	 * @param width width of the region
+	 * @param height height of the region
+	 * @return intersecting cells in no particular order
+	 * @see MxSpatialIndex
+	 */
+	public List<MxICell> getCellsInRegion(double x, double y, double width, double height) {
+		setSpatialIndexEnabled(true);
+		return spatialIndex.getCellsInRegion(x, y, width, height);
+	}
+
+	/**
+	 * Returns the visible cell whose absolute bounds are closest to the given point. The spatial index is enabled on first use.
+	 *
+	 * @param x x-coordinate of the point
+	 * @param y y-coordinate of the point
+	 * @return nearest cell or null if there are no visible cells
+	 * @see MxSpatialIndex
+	 */
+	public MxICell getNearestCell(double x, double y) {
+		setSpatialIndexEnabled(true);
+		return spatialIndex.getNearestCell(x, y);
+	}
+
+	/**
+	 * Enables or disables the compaction of transactions. While enabled, repeated value, style, geometry, visible, collapsed and attribute changes of the
+	 * same cell within a transaction are merged into one change when the outermost update ends, and changes without net effect are dropped, before the edit
+	 * is dispatched to the change and undo listeners.
+	 *
+	 * @param enabled true to compact transactions
+	 * @see MxChangeCompactor
+	 */
+	public void setChangeCompactionEnabled(boolean enabled) {
+		if (enabled && changeCompactor == null) {
+			changeCompactor = new MxChangeCompactor(this);
+			changeCompactor.attach();
+		} else if (!enabled && changeCompactor != null) {
+			changeCompactor.detach();
+			changeCompactor = null;
+		}
+	}
+
+	public boolean isChangeCompactionEnabled() {
+		return changeCompactor != null;
+	}
+
+	/**
+	 * Builds a compressed adjacency snapshot of the vertices in the subtree of the given parent and the edges between them for graph algorithms such as
+	 * breadth-first search, shortest paths, topological sorting and strongly connected components.
+	 *
+	 * @param parent Optional {@link MxICell} whose descendant vertices should be included. Default is the root.
+	 * @param directed if false, every edge can be traversed in both directions
+	 * @return new analysis snapshot
+	 */
+	public MxGraphAnalysis createAnalysis(MxICell parent, boolean directed) {
+		return MxGraphAnalysis.create(getJso(), (parent != null) ? parent.getJso() : null, directed);
+	}
+
+	/**
+	 * Builds a directed analysis snapshot of the vertices in the subtree of the given parent.
+	 *
+	 * @param parent Optional {@link MxICell} whose descendant vertices should be included. Default is the root.
+	 * @return new analysis snapshot
+	 * @see #createAnalysis(MxICell, boolean)
+	 */
+	public MxGraphAnalysis createAnalysis(MxICell parent) {
+		return createAnalysis(parent, true);
+	}
+
+	/**
+	 * Takes a read-only snapshot of the current state of the model in constant time. The snapshot shares its cells with the model and copies a cell only
+	 * when it is changed for the first time after the snapshot was taken. Release the snapshot with {@link MxModelSnapshot#release()} when it is no longer
+	 * needed.
+	 *
+	 * @return new snapshot
+	 */
+	public MxModelSnapshot createSnapshot() {
+		return new MxModelSnapshot(this);
+	}
+
 	/**
 	 * Returns the root of the model or the topmost parent of the given cell.
 	 *
@@ -383,9 +713,17 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	 * @param child {@link MxICell} that specifies the child.
 	 * @return
 	 */
-	public native boolean isAncestor(MxICell parent, MxICell child) /*-{
-		var parentJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(parent).cell;
-		var childJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(child).cell;
+	public boolean isAncestor(MxICell parent, MxICell child) {
+		if (ancestryIndex != null) {
+			return ancestryIndex.isAncestor(parent, child);
+		}
+
+		return isAncestorJS(parent, child);
+	}
+
+	private native boolean isAncestorJS(MxICell parent, MxICell child) /*-{
+		var parentJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(parent);
+		var childJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(child);
 		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).isAncestor(parentJS, childJS);
 	}-*/;
 
@@ -441,6 +779,15 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).createId(cellJS);
 	}-*/;
 
+	/**
+	 * Creates an allocator that reserves Ids of this model in blocks, eg. to remap the Ids of large subtrees before they are added.
+	 *
+	 * @return new allocator
+	 */
+	public MxIdAllocator createIdAllocator() {
+		return new MxIdAllocator(this);
+	}
+
 	/**
 	 * Updates the parent for all edges that are connected to cell or one of its descendants
 	 *
@@ -472,12 +819,20 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	 * @param cell2 {@link MxICell} that specifies the second cell in the tree.
 	 * @return
 	 */
-	public native MxICell getNearestCommonAncestor(MxICell cell1, MxICell cell2) /*-{
+	public MxICell getNearestCommonAncestor(MxICell cell1, MxICell cell2) {
+		if (ancestryIndex != null) {
+			return ancestryIndex.getNearestCommonAncestor(cell1, cell2);
+		}
+
+		return getNearestCommonAncestorJS(cell1, cell2);
+	}
+
+	private native MxICell getNearestCommonAncestorJS(MxICell cell1, MxICell cell2) /*-{
 		var cell1JS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(cell1);
 		var cell2JS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(cell2);
 		var cellJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getNearestCommonAncestor(cell1JS,
 				cell2JS);
-		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(cellsJS);
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(cellJS);
 	}-*/;
 
 	/**
@@ -524,7 +879,9 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	public native List<MxICell> getChildren(MxICell cell) /*-{
 		var cellJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(cell);
 		var childrenJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getChildren(cellJS);
-		return @com.mxgraph.impl.util.WrapperUtils::wrapList(Lcom/google/gwt/core/client/JavaScriptObject;)(childrenJS);
+
+		// The model hands out its own array, so a copy is wrapped to keep later changes out of the list
+		return @com.mxgraph.impl.util.WrapperUtils::wrapList(Lcom/google/gwt/core/client/JavaScriptObject;)(childrenJS != null ? childrenJS.slice() : null);
 	}-*/;
 
 	/**
@@ -580,7 +937,8 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 
 	/**
 	 * Sets the source or target terminal of the given {@link MxICell} using MxTerminalChange and adds the change to the current transaction. This implementation
-	 * updates the parent of the edge using {@link #updateEdgeParents(MxICell, MxICell)} if required.
+	 * updates the parent of the edge using {@link #updateEdgeParents(MxICell, MxICell)} if required. If the cycle guard is enabled, the terminal is not
+	 * changed when the edge would close a directed cycle.
 	 *
 	 * @param edge {@link MxICell} that specifies the edge.
 	 * @param terminal {@link MxICell} that specifies the new terminal.
@@ -594,7 +952,8 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 
 	/**
 	 * Sets the source and target {@link MxICell} of the given MxICell in a single transaction using {@link #setTerminal(MxICell, MxICell, boolean)} for each end of
-	 * the edge.
+	 * the edge. If the cycle guard is enabled, the resulting pair of terminals is checked once and neither terminal is changed when the edge would close a
+	 * directed cycle.
 	 *
 	 * @param edge <MxICell> that specifies the edge.
 	 * @param source <MxICell> that specifies the new source terminal.
@@ -639,13 +998,169 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	 * @param ignoredEdge MxICell that represents an edge to be ignored.
 	 * @return
 	 */
-	public native int getDirectedEdgeCount(MxICell cell, boolean outgoing, MxICell ignoredEdge) /*-{
+	public int getDirectedEdgeCount(MxICell cell, boolean outgoing, MxICell ignoredEdge) {
+		if (degreeIndex != null) {
+			return degreeIndex.getDirectedEdgeCount(cell, outgoing, ignoredEdge);
+		}
+
+		return getDirectedEdgeCountJS(cell, outgoing, ignoredEdge);
+	}
+
+	private native int getDirectedEdgeCountJS(MxICell cell, boolean outgoing, MxICell ignoredEdge) /*-{
 		var cellJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(cell);
-		var ignoredEdgeJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(ignoredEdge);
+		var ignoredEdgeJS = ignoredEdge != null ? @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(ignoredEdge) : null;
 		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getDirectedEdgeCount(cellJS, outgoing,
 				ignoredEdgeJS);
 	}-*/;
 
+	/**
+	 * Enables or disables the degree index. While enabled, {@link #getDirectedEdgeCount(MxICell, boolean, MxICell)} is answered from counters that are
+	 * updated from the changes executed on this model. Disabling the index releases its memory.
+	 *
+	 * @param enabled true to maintain the degree index
+	 */
+	public void setDegreeIndexEnabled(boolean enabled) {
+		if (enabled && degreeIndex == null) {
+			degreeIndex = new MxDegreeIndex(this);
+			degreeIndex.attach();
+		} else if (!enabled && degreeIndex != null) {
+			degreeIndex.detach();
+			degreeIndex = null;
+		}
+	}
+
+	public boolean isDegreeIndexEnabled() {
+		return degreeIndex != null;
+	}
+
+	/**
+	 * Returns the degree index, eg. for in- and out-degrees or its memory estimate, or null if the index is disabled.
+	 *
+	 * @return degree index or null
+	 */
+	public MxDegreeIndex getDegreeIndex() {
+		return degreeIndex;
+	}
+
+	/**
+	 * Enables or disables tracking of the connected components of the vertices. Disabling the tracker releases its memory and its listeners.
+	 *
+	 * @param enabled true to track connected components
+	 * @see MxComponentTracker
+	 */
+	public void setComponentTrackingEnabled(boolean enabled) {
+		if (enabled && componentTracker == null) {
+			componentTracker = new MxComponentTracker(this);
+			componentTracker.attach();
+		} else if (!enabled && componentTracker != null) {
+			componentTracker.detach();
+			componentTracker = null;
+		}
+	}
+
+	public boolean isComponentTrackingEnabled() {
+		return componentTracker != null;
+	}
+
+	/**
+	 * Returns the component tracker, eg. for component sizes, or null if component tracking is disabled. Merges and splits are fired by this model as
+	 * {@link MxComponentTracker#COMPONENTS_MERGED} and {@link MxComponentTracker#COMPONENT_SPLIT} events.
+	 *
+	 * @return component tracker or null
+	 */
+	public MxComponentTracker getComponentTracker() {
+		return componentTracker;
+	}
+
+	/**
+	 * Returns the Id of the connected component of the given vertex. Component tracking is enabled on first use.
+	 *
+	 * @param cell vertex
+	 * @return component Id, or null if the cell is not a vertex of the model
+	 */
+	public String getComponentId(MxICell cell) {
+		setComponentTrackingEnabled(true);
+		return componentTracker.getComponentId(cell);
+	}
+
+	/**
+	 * Enables or disables the cycle guard. While enabled, {@link #setTerminal(MxICell, MxICell, boolean)} and
+	 * {@link #setTerminals(MxICell, MxICell, MxICell)} leave the terminals unchanged if the edge would close a directed cycle, and
+	 * {@link #wouldCreateCycle(MxICell, MxICell)} is answered from an incrementally maintained topological order.
+	 *
+	 * @param enabled true to keep the model acyclic
+	 * @see MxCycleGuard
+	 */
+	public void setCycleGuardEnabled(boolean enabled) {
+		if (enabled && cycleGuard == null) {
+			cycleGuard = new MxCycleGuard(this);
+			cycleGuard.attach();
+		} else if (!enabled && cycleGuard != null) {
+			cycleGuard.detach();
+			cycleGuard = null;
+		}
+	}
+
+	public boolean isCycleGuardEnabled() {
+		return cycleGuard != null;
+	}
+
+	/**
+	 * Returns the cycle guard, eg. to add a {@link MxCycleGuard.Listener} for rejected edges, or null if the guard is disabled.
+	 *
+	 * @return cycle guard or null
+	 */
+	public MxCycleGuard getCycleGuard() {
+		return cycleGuard;
+	}
+
+	/**
+	 * Returns true if an edge from source to target would close a directed cycle, eg. to validate a connection preview. Without the cycle guard this
+	 * searches all cells that are reachable from target.
+	 *
+	 * @param source {@link MxICell} that specifies the source of the new edge.
+	 * @param target {@link MxICell} that specifies the target of the new edge.
+	 * @return true if the edge would close a cycle
+	 */
+	public boolean wouldCreateCycle(MxICell source, MxICell target) {
+		if (cycleGuard != null) {
+			return cycleGuard.wouldCreateCycle(source, target);
+		}
+
+		return wouldCreateCycleJS(source, target);
+	}
+
+	private native boolean wouldCreateCycleJS(MxICell source, MxICell target) /*-{
+		var model = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this);
+		var sourceJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(source);
+		var targetJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(target);
+		var visited = {};
+		var stack = [ targetJS ];
+		visited[$wnd.mxObjectIdentity.get(targetJS)] = true;
+
+		while (stack.length > 0) {
+			var tmp = stack.pop();
+
+			if (tmp == sourceJS) {
+				return true;
+			}
+
+			var edgeCount = model.getEdgeCount(tmp);
+
+			for ( var i = 0; i < edgeCount; i++) {
+				var edge = model.getEdgeAt(tmp, i);
+				var next = model.getTerminal(edge, false);
+
+				if (model.getTerminal(edge, true) == tmp && next != null && !visited[$wnd.mxObjectIdentity.get(next)]) {
+					visited[$wnd.mxObjectIdentity.get(next)] = true;
+					stack.push(next);
+				}
+			}
+		}
+
+		return false;
+	}-*/;
+
 	/**
 	 * Returns all edges of the given cell without loops.
 	 *
@@ -705,7 +1220,9 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	public native List<MxICell> getEdges(MxICell cell, boolean incoming, boolean outgoing, boolean includeLoops) /*-{
 		var cellJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(cell);
 		var edgesJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getEdges(cellJS);
-		return @com.mxgraph.impl.util.WrapperUtils::wrapList(Lcom/google/gwt/core/client/JavaScriptObject;)(edgesJS);
+
+		// The model hands out its own array, so a copy is wrapped to keep later changes out of the list
+		return @com.mxgraph.impl.util.WrapperUtils::wrapList(Lcom/google/gwt/core/client/JavaScriptObject;)(edgesJS != null ? edgesJS.slice() : null);
 	}-*/;
 
 	/**
@@ -719,6 +1236,35 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 		return getEdgesBetween(source, target, false);
 	}
 
+	/**
+	 * Enables or disables the (source, target) edge index. While enabled, {@link #getEdgesBetween(MxICell, MxICell, boolean)} is answered from a hash index
+	 * that is updated from the changes executed on this model, instead of scanning the edges of a terminal. Disabling the index releases its memory.
+	 *
+	 * @param enabled true to maintain the edge index
+	 */
+	public void setEdgeIndexEnabled(boolean enabled) {
+		if (enabled && edgeIndex == null) {
+			edgeIndex = new MxEdgeIndex(this);
+			edgeIndex.attach();
+		} else if (!enabled && edgeIndex != null) {
+			edgeIndex.detach();
+			edgeIndex = null;
+		}
+	}
+
+	public boolean isEdgeIndexEnabled() {
+		return edgeIndex != null;
+	}
+
+	/**
+	 * Returns the edge index, eg. to query its memory estimate, or null if the index is disabled.
+	 *
+	 * @return edge index or null
+	 */
+	public MxEdgeIndex getEdgeIndex() {
+		return edgeIndex;
+	}
+
 	/**
 	 * Returns all edges between the given source and target pair. If directed is true, then only edges from the source to the target are returned, otherwise,
 	 * all edges between the two cells are returned.
@@ -728,7 +1274,15 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	 * @param directed boolean that specifies if the direction of the edge should be taken into account.
 	 * @return list of edges
 	 */
-	public native List<MxICell> getEdgesBetween(MxICell source, MxICell target, boolean directed) /*-{
+	public List<MxICell> getEdgesBetween(MxICell source, MxICell target, boolean directed) {
+		if (edgeIndex != null) {
+			return edgeIndex.getEdgesBetween(source, target, directed);
+		}
+
+		return getEdgesBetweenJS(source, target, directed);
+	}
+
+	private native List<MxICell> getEdgesBetweenJS(MxICell source, MxICell target, boolean directed) /*-{
 		var sourceJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(source);
 		var targetJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(target);
 		var edgesJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getEdgesBetween(sourceJS, targetJS,
@@ -758,7 +1312,15 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	 * @param cells list of cells whose topmost ancestors should be returned.
 	 * @return
 	 */
-	public native List<MxICell> getTopmostCells(List<MxICell> cells) /*-{
+	public List<MxICell> getTopmostCells(List<MxICell> cells) {
+		if (ancestryIndex != null) {
+			return ancestryIndex.getTopmostCells(cells);
+		}
+
+		return getTopmostCellsJS(cells);
+	}
+
+	private native List<MxICell> getTopmostCellsJS(List<MxICell> cells) /*-{
 		var cellsJS = @com.mxgraph.impl.util.WrapperUtils::unwrapList(Ljava/util/List;)(cells);
 		var topCellsJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getTopmostCells(cellsJS);
 		return @com.mxgraph.impl.util.WrapperUtils::wrapList(Lcom/google/gwt/core/client/JavaScriptObject;)(topCellsJS);
@@ -829,11 +1391,138 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	 * @param cell
 	 * @return
 	 */
-	//	public native MxGeometry getGeometry(MxICell cell) /*-{
-	//		var cellJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(cell);
-	//		var geometryJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getGeometry(cellJS);
-	//		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(geometryJS);
-	//	}-*/;
+	public native MxGeometry getGeometry(MxICell cell) /*-{
+		var cellJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(cell);
+		var geometryJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getGeometry(cellJS);
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(geometryJS);
+	}-*/;
+
+	/**
+	 * Writes the bounds of all vertices below the given parent into a packed typed array in a single native call. The parent itself is not included.
+	 *
+	 * @param parent {@link MxICell} whose descendant vertices should be exported. Default is the root.
+	 * @param absolute if true, the origin of the parent of each vertex is added to its geometry (see getOrigin in mxGraphModel), otherwise the geometry is
+	 * written as stored
+	 * @return packed bounds and Ids of the vertices
+	 */
+	public MxCellBoundsJSO getVertexBounds(MxICell parent, boolean absolute) {
+		return getVertexBounds(parent, absolute, null);
+	}
+
+	/**
+	 * Same as {@link #getVertexBounds(MxICell, boolean)} but refills the given instance instead of allocating a new one, which avoids garbage if the bounds
+	 * are exported on every frame.
+	 *
+	 * @param parent {@link MxICell} whose descendant vertices should be exported. Default is the root.
+	 * @param absolute if true, the origin of the parent of each vertex is added to its geometry
+	 * @param reuse optional instance to refill
+	 * @return packed bounds and Ids of the vertices
+	 */
+	public native MxCellBoundsJSO getVertexBounds(MxICell parent, boolean absolute, MxCellBoundsJSO reuse) /*-{
+		var model = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this);
+		var parentJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(parent) || model.getRoot();
+		var cells = [];
+		var stack = [];
+
+		for ( var i = model.getChildCount(parentJS) - 1; i >= 0; i--) {
+			stack.push(model.getChildAt(parentJS, i));
+		}
+
+		while (stack.length > 0) {
+			var cell = stack.pop();
+
+			if (model.isVertex(cell)) {
+				cells.push(cell);
+			}
+
+			for ( var i = model.getChildCount(cell) - 1; i >= 0; i--) {
+				stack.push(model.getChildAt(cell, i));
+			}
+		}
+
+		return @com.mxgraph.impl.model.MxGraphModel::exportBounds(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;ZLcom/mxgraph/jso/model/MxCellBoundsJSO;)(model, cells, absolute, reuse);
+	}-*/;
+
+	/**
+	 * Writes the bounds of the given cells into a packed typed array in a single native call. The order of the cells is kept.
+	 *
+	 * @param cells list of cells whose bounds should be exported
+	 * @param absolute if true, the origin of the parent of each cell is added to its geometry
+	 * @param reuse optional instance to refill
+	 * @return packed bounds and Ids of the cells
+	 */
+	public MxCellBoundsJSO getCellBounds(List<MxICell> cells, boolean absolute, MxCellBoundsJSO reuse) {
+		return exportBounds(getJso(), WrapperUtils.unwrapList(cells), absolute, reuse);
+	}
+
+	private static native MxCellBoundsJSO exportBounds(JavaScriptObject model, JavaScriptObject cells, boolean absolute, MxCellBoundsJSO reuse) /*-{
+		var count = cells != null ? cells.length : 0;
+		var result = reuse;
+
+		if (result == null) {
+			result = @com.mxgraph.jso.model.MxCellBoundsJSO::create(I)(count);
+		} else if (result.bounds.length < count * 4) {
+			result.bounds = new Float64Array(count * 4);
+		}
+
+		var bounds = result.bounds;
+		var ids = result.ids;
+		ids.length = count;
+		result.length = count;
+		result.absolute = absolute;
+		result.index = null;
+
+		// Origins are cached per parent, so each ancestor chain is only walked once
+		var origins = {};
+		var getOrigin = function(cell) {
+			if (cell == null) {
+				return null;
+			}
+
+			var key = $wnd.mxObjectIdentity.get(cell);
+			var origin = origins[key];
+
+			if (origin == null) {
+				var parentOrigin = getOrigin(model.getParent(cell));
+				origin = {
+					x : parentOrigin != null ? parentOrigin.x : 0,
+					y : parentOrigin != null ? parentOrigin.y : 0
+				};
+				var geo = model.isEdge(cell) ? null : model.getGeometry(cell);
+
+				if (geo != null) {
+					origin.x += geo.x;
+					origin.y += geo.y;
+				}
+
+				origins[key] = origin;
+			}
+
+			return origin;
+		};
+
+		for ( var i = 0; i < count; i++) {
+			var cell = cells[i];
+			var geo = model.getGeometry(cell);
+			var offset = i * 4;
+			ids[i] = cell.getId();
+
+			if (geo != null) {
+				var origin = absolute ? getOrigin(model.getParent(cell)) : null;
+				bounds[offset] = geo.x + (origin != null ? origin.x : 0);
+				bounds[offset + 1] = geo.y + (origin != null ? origin.y : 0);
+				bounds[offset + 2] = geo.width;
+				bounds[offset + 3] = geo.height;
+			} else {
+				bounds[offset] = NaN;
+				bounds[offset + 1] = NaN;
+				bounds[offset + 2] = NaN;
+				bounds[offset + 3] = NaN;
+			}
+		}
+
+		return result;
+	}-*/;
 
 	public static abstract class MxChange implements IJavaScriptWrapper {
 
@@ -872,7 +1561,7 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	public static class MxChildChange extends MxChange {
 
 		private native JavaScriptObject createJso(JavaScriptObject model, JavaScriptObject parent, JavaScriptObject child, int index) /*-{
-			return new $wnd.MxChildChange(model, parent, child, index);
+			return new $wnd.mxChildChange(model, parent, child, index);
 		}-*/;
 
 		private MxChildChange() {
@@ -886,7 +1575,7 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	public static class MxTerminalChange extends MxChange {
 
 		private native JavaScriptObject createJso(JavaScriptObject model, JavaScriptObject cell, JavaScriptObject terminal, JavaScriptObject source) /*-{
-			return new $wnd.MxTerminalChange(model, cell, terminal, source);
+			return new $wnd.mxTerminalChange(model, cell, terminal, source);
 		}-*/;
 
 		private MxTerminalChange() {
@@ -900,7 +1589,7 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	public static class MxValueChange extends MxChange {
 
 		private native JavaScriptObject createJso(JavaScriptObject model, JavaScriptObject cell, Object value) /*-{
-			return new $wnd.MxValueChange(model, cell, value);
+			return new $wnd.mxValueChange(model, cell, value);
 		}-*/;
 
 		private MxValueChange() {
@@ -914,7 +1603,7 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	public static class MxStyleChange extends MxChange {
 
 		private native JavaScriptObject createJso(JavaScriptObject model, JavaScriptObject cell, String style) /*-{
-			return new $wnd.MxStyleChange(model, cell, style);
+			return new $wnd.mxStyleChange(model, cell, style);
 		}-*/;
 
 		private MxStyleChange() {
@@ -928,15 +1617,15 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	public static class MxGeometryChange extends MxChange {
 
 		private native JavaScriptObject createJso(JavaScriptObject model, JavaScriptObject cell, JavaScriptObject geometry) /*-{
-			return new $wnd.MxGeometryChange(model, cell, geometry);
+			return new $wnd.mxGeometryChange(model, cell, geometry);
 		}-*/;
 
 		private MxGeometryChange() {
 		}
 
-		//		public MxGeometryChange(MxGraphModel model, MxICell cell, MxGeometry geometry) {
-		//			jso = createJso(model.getJso(), cell.getJso(), geometry.getJso());
-		//		}
+		public MxGeometryChange(MxGraphModel model, MxICell cell, MxGeometry geometry) {
+			jso = createJso(model.getJso(), cell.getJso(), geometry != null ? geometry.getJso() : null);
+		}
 	}
 
 	public static class mxCollapseChange extends MxChange {
@@ -970,7 +1659,7 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	public static class MxCellAttributeChange extends MxChange {
 
 		private native JavaScriptObject createJso(JavaScriptObject cell, String attribute, String value) /*-{
-			return new $wnd.MxCellAttributeChange(cell, attribute, value);
+			return new $wnd.mxCellAttributeChange(cell, attribute, value);
 		}-*/;
 
 		private MxCellAttributeChange() {
@@ -992,6 +1681,69 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getStyle(cellJS);
 	}-*/;
 
+	/**
+	 * Returns the value for the given key in the style string of the given cell, eg. fillColor, or null if the style does not define it. Named styles and
+	 * the defaults of the stylesheet are not resolved. While the style registry is enabled, the parsed styles are cached.
+	 *
+	 * @param cell cell whose style should be read
+	 * @param key style key
+	 * @return value or null
+	 * @see MxStyleRegistry
+	 */
+	public String getStyleValue(MxICell cell, String key) {
+		if (styleRegistry != null) {
+			return styleRegistry.getStyleValue(cell, key);
+		}
+
+		return getStyleValueJS(cell, key);
+	}
+
+	private native String getStyleValueJS(MxICell cell, String key) /*-{
+		var cellJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(cell);
+		var style = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getStyle(cellJS);
+		var tokens = (style != null) ? style.split(';') : [];
+		var value = null;
+
+		for ( var i = 0; i < tokens.length; i++) {
+			var pos = tokens[i].indexOf('=');
+
+			if (pos >= 0 && tokens[i].substring(0, pos) == key) {
+				value = tokens[i].substring(pos + 1);
+			}
+		}
+
+		return (value != null && value != $wnd.mxConstants.NONE) ? value : null;
+	}-*/;
+
+	/**
+	 * Enables or disables the style registry, which interns the style strings of all cells and caches their parsed key/value pairs. Disabling the registry
+	 * releases the cache, the interned strings stay in place.
+	 *
+	 * @param enabled true to maintain the style registry
+	 */
+	public void setStyleRegistryEnabled(boolean enabled) {
+		if (enabled && styleRegistry == null) {
+			styleRegistry = new MxStyleRegistry(this);
+			styleRegistry.attach();
+		} else if (!enabled && styleRegistry != null) {
+			styleRegistry.detach();
+			styleRegistry = null;
+		}
+	}
+
+	public boolean isStyleRegistryEnabled() {
+		return styleRegistry != null;
+	}
+
+	/**
+	 * Returns the style registry or null if it is disabled.
+	 *
+	 * @return style registry or null
+	 */
+	public MxStyleRegistry getStyleRegistry() {
+		return styleRegistry;
+	}
+
 	/**
 	 * Sets the {@link MxGeometry} of the given {@link MxICell}. The actual update of the cell is carried out in <geometryForCellChanged>. The
 	 * {@link MxGeometryChange} action is used to encapsulate the change.
@@ -1000,12 +1752,138 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 	 * @param geometry
 	 * @return
 	 */
-	//	public native MxGeometry setGeometry(MxICell cell, MxGeometry geometry) /*-{
-	//		var cellJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(cell);
-	//		var geometryJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(geometry);
-	//		var retvalJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).setGeometry(cellJS, geometryJS);
-	//		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(retvalJS);
-	//	}-*/;
+	public native MxGeometry setGeometry(MxICell cell, MxGeometry geometry) /*-{
+		var cellJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(cell);
+		var geometryJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(geometry);
+		var retvalJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).setGeometry(cellJS, geometryJS);
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(retvalJS);
+	}-*/;
+
+	/**
+	 * Applies packed bounds to many cells in a single native call. All changes are carried out as {@link MxGeometryChange}s inside one transaction, so
+	 * listeners and the view are notified once.
+	 *
+	 * @param ids Ids of the cells to change. Unknown Ids are skipped.
+	 * @param values x, y, width and height for each cell, packed with a stride of 4 in the order of the Ids. NaN keeps the current value.
+	 * @param delta if true the values are added to the current geometry, otherwise they replace it
+	 * @return number of cells whose geometry was changed
+	 */
+	public native int setGeometries(JsArrayString ids, Float64Array values, boolean delta) /*-{
+		var model = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this);
+		var count = 0;
+		var apply = function(current, value) {
+			return isNaN(value) ? current : (delta ? current + value : value);
+		};
+
+		model.beginUpdate();
+		try {
+			for ( var i = 0; i < ids.length; i++) {
+				var cell = model.getCell(ids[i]);
+
+				if (cell == null) {
+					continue;
+				}
+
+				var geo = model.getGeometry(cell);
+
+				if (geo == null && delta) {
+					continue;
+				}
+
+				geo = (geo != null) ? geo.clone() : new $wnd.mxGeometry(0, 0, 0, 0);
+				var offset = i * 4;
+				var x = apply(geo.x, values[offset]);
+				var y = apply(geo.y, values[offset + 1]);
+				var width = apply(geo.width, values[offset + 2]);
+				var height = apply(geo.height, values[offset + 3]);
+
+				if (x != geo.x || y != geo.y || width != geo.width || height != geo.height) {
+					geo.x = x;
+					geo.y = y;
+					geo.width = width;
+					geo.height = height;
+					model.execute(new $wnd.mxGeometryChange(model, cell, geo));
+					count++;
+				}
+			}
+		} finally {
+			model.endUpdate();
+		}
+
+		return count;
+	}-*/;
+
+	/**
+	 * Applies bounds previously exported with {@link #getVertexBounds(MxICell, boolean)} or {@link #getCellBounds(List, boolean, MxCellBoundsJSO)}, eg. after
+	 * they were modified by a layout, in a single transaction. Absolute bounds are converted back to coordinates relative to the parents, using the new
+	 * bounds of parents that are part of the export and the current geometries of all other ancestors.
+	 *
+	 * @param bounds packed bounds and Ids
+	 * @return number of cells whose geometry was changed
+	 */
+	public int setGeometries(MxCellBoundsJSO bounds) {
+		if (bounds.isAbsolute()) {
+			return setGeometries(bounds.getIds(), toRelativeBounds(getJso(), bounds), false);
+		}
+
+		return setGeometries(bounds.getIds(), bounds.getBounds(), false);
+	}
+
+	private static native Float64Array toRelativeBounds(JavaScriptObject model, MxCellBoundsJSO bounds) /*-{
+		var count = bounds.length;
+		var values = bounds.bounds;
+		var result = new Float64Array(count * 4);
+
+		// New origins are cached per parent, parents in the export contribute their new absolute position
+		var origins = {};
+		var getOrigin = function(cell) {
+			if (cell == null) {
+				return null;
+			}
+
+			var key = $wnd.mxObjectIdentity.get(cell);
+			var origin = origins[key];
+
+			if (origin == null) {
+				var index = model.isEdge(cell) ? -1 : bounds.@com.mxgraph.jso.model.MxCellBoundsJSO::indexOf(Ljava/lang/String;)(cell.getId());
+
+				if (index >= 0 && !isNaN(values[index * 4]) && !isNaN(values[index * 4 + 1])) {
+					origin = {
+						x : values[index * 4],
+						y : values[index * 4 + 1]
+					};
+				} else {
+					var parentOrigin = getOrigin(model.getParent(cell));
+					origin = {
+						x : parentOrigin != null ? parentOrigin.x : 0,
+						y : parentOrigin != null ? parentOrigin.y : 0
+					};
+					var geo = model.isEdge(cell) ? null : model.getGeometry(cell);
+
+					if (geo != null) {
+						origin.x += geo.x;
+						origin.y += geo.y;
+					}
+				}
+
+				origins[key] = origin;
+			}
+
+			return origin;
+		};
+
+		for ( var i = 0; i < count; i++) {
+			var offset = i * 4;
+			var cell = model.getCell(bounds.ids[i]);
+			var origin = (cell != null) ? getOrigin(model.getParent(cell)) : null;
+			result[offset] = values[offset] - (origin != null ? origin.x : 0);
+			result[offset + 1] = values[offset + 1] - (origin != null ? origin.y : 0);
+			result[offset + 2] = values[offset + 2];
+			result[offset + 3] = values[offset + 3];
+		}
+
+		return result;
+	}-*/;
 
 	/**
 	 * Returns true if the given {@link MxICell} is visible.
@@ -1060,4 +1938,14 @@ public class MxGraphModel extends MxEventSource /*implements *MxIGraphModel*/ {
 		var changeJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(change);
 		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).execute(changeJS);
 	}-*/;
+
+	/**
+	 * Replays the operations recorded in the given buffer in a single native call inside one transaction.
+	 *
+	 * @param commands recorded operations
+	 * @return Ids of the cells referenced by the buffer, indexed by their handles
+	 */
+	public JsArrayString execute(MxCommandBuffer commands) {
+		return commands.execute(this);
+	}
 }
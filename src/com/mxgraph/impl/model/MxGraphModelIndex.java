@@ -0,0 +1,136 @@
+package com.mxgraph.impl.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Base class for secondary indices over a {@link MxGraphModel} that are kept up to date incrementally.
+ *
+ * An attached index listens to mxEvent.EXECUTED, which the model fires for every change that is executed, undone or redone, so the index follows the model
+ * through transactions and the undo history. Root changes replace the whole cell hierarchy and trigger {@link #rebuild()}, all other changes are passed to
+ * {@link #processChange(JavaScriptObject)} after they have been executed.
+ *
+ * Cells that are modified directly (eg. by calling setTerminal on the cell instead of the model) bypass the change events and are not seen by the index.
+ */
+public abstract class MxGraphModelIndex {
+
+	private final MxGraphModel model;
+
+	private JavaScriptObject listener;
+
+	protected MxGraphModelIndex(MxGraphModel model) {
+		this.model = model;
+	}
+
+	public MxGraphModel getModel() {
+		return model;
+	}
+
+	/**
+	 * Builds the index from the current state of the model and starts listening for changes.
+	 */
+	public void attach() {
+		if (listener == null) {
+			listener = addListener(model.getJso());
+			rebuild();
+		}
+	}
+
+	/**
+	 * Stops listening for changes and releases the indexed data.
+	 */
+	public void detach() {
+		if (listener != null) {
+			removeListener(model.getJso(), listener);
+			listener = null;
+			clear();
+		}
+	}
+
+	public boolean isAttached() {
+		return listener != null;
+	}
+
+	/**
+	 * Discards all indexed data and indexes the cells that are currently in the model.
+	 */
+	protected abstract void rebuild();
+
+	/**
+	 * Discards all indexed data.
+	 */
+	protected abstract void clear();
+
+	/**
+	 * Updates the index for the given native change, which has already been executed.
+	 *
+	 * @param change native mxRootChange, mxChildChange, mxTerminalChange, ...
+	 */
+	protected abstract void processChange(JavaScriptObject change);
+
+	/**
+	 * Returns an estimate of the memory held by the index in bytes. The estimate is based on typical JavaScript engine object sizes and is meant for
+	 * comparing the cost of an index against the number of cells, not for exact accounting.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public abstract int getMemoryEstimate();
+
+	/**
+	 * Returns the root of the subtree whose cells may have been added, removed or reconnected by the given change, or null if the change does not affect
+	 * the structure of the model.
+	 *
+	 * @param change native change that has been executed
+	 * @return native cell or null
+	 */
+	protected static native JavaScriptObject getChangedCell(JavaScriptObject change) /*-{
+		if (change instanceof $wnd.mxChildChange) {
+			return change.child;
+		} else if (change instanceof $wnd.mxTerminalChange) {
+			return change.cell;
+		}
+
+		return null;
+	}-*/;
+
+	/**
+	 * Calls the given native function for every cell in the subtree of the given cell, including the cell itself, using an explicit stack. Does nothing if
+	 * cell is null.
+	 *
+	 * @param model native model
+	 * @param cell native root of the subtree
+	 * @param visitor native function that takes a cell
+	 */
+	protected static native void visitSubtree(JavaScriptObject model, JavaScriptObject cell, JavaScriptObject visitor) /*-{
+		var stack = (cell != null) ? [ cell ] : [];
+
+		while (stack.length > 0) {
+			var tmp = stack.pop();
+			visitor(tmp);
+
+			var childCount = model.getChildCount(tmp);
+
+			for ( var i = 0; i < childCount; i++) {
+				stack.push(model.getChildAt(tmp, i));
+			}
+		}
+	}-*/;
+
+	private native JavaScriptObject addListener(JavaScriptObject modelJS) /*-{
+		var self = this;
+		var listener = function(sender, evt) {
+			var change = evt.getProperty('change');
+
+			if (change instanceof $wnd.mxRootChange) {
+				self.@com.mxgraph.impl.model.MxGraphModelIndex::rebuild()();
+			} else if (change != null) {
+				self.@com.mxgraph.impl.model.MxGraphModelIndex::processChange(Lcom/google/gwt/core/client/JavaScriptObject;)(change);
+			}
+		};
+		modelJS.addListener($wnd.mxEvent.EXECUTED, listener);
+		return listener;
+	}-*/;
+
+	private static native void removeListener(JavaScriptObject modelJS, JavaScriptObject listener) /*-{
+		modelJS.removeListener(listener);
+	}-*/;
+}
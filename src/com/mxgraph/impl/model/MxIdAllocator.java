@@ -0,0 +1,138 @@
+package com.mxgraph.impl.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Allocates cell Ids of a model in contiguous blocks.
+ *
+ * mxGraphModel.createId hands out <prefix><nextId><postfix> and cellAdded probes the cells dictionary again for every generated Id until there is no
+ * collision. When the model contains Ids that have been created elsewhere (eg. by an import), nextId lags behind them and large inserts spend their time in
+ * these retries. The allocator scans the model once for the highest Id of the form <prefix><number><postfix>, moves nextId past it and then reserves whole
+ * ranges by advancing nextId, so that {@link #remap(MxICell)} can assign fresh Ids to an incoming subtree in a single pass.
+ *
+ * Ids that are added to the model by other means after {@link #scan()} are only accounted for if they are purely numeric (mxGraphModel.cellAdded tracks
+ * those); call {@link #scan()} again after importing cells with foreign Ids.
+ */
+public class MxIdAllocator {
+
+	private final MxGraphModel model;
+
+	public MxIdAllocator(MxGraphModel model) {
+		this.model = model;
+		scan();
+	}
+
+	/**
+	 * Moves the next Id of the model past the highest Id of the form prefix, number, postfix that is currently in use.
+	 */
+	public void scan() {
+		scan(model.getJso());
+	}
+
+	/**
+	 * Reserves count consecutive Ids and returns the number of the first one. The Ids are formatted with {@link #format(int)}.
+	 *
+	 * @param count number of Ids to reserve
+	 * @return number of the first reserved Id
+	 */
+	public int reserve(int count) {
+		return reserve(model.getJso(), count);
+	}
+
+	/**
+	 * Reserves count consecutive Ids and returns them formatted.
+	 *
+	 * @param count number of Ids to reserve
+	 * @return reserved Ids
+	 */
+	public JsArrayString reserveIds(int count) {
+		return format(model.getJso(), reserve(count), count);
+	}
+
+	/**
+	 * Returns the Id for the given number using the prefix and postfix of the model.
+	 *
+	 * @param number Id number
+	 * @return formatted Id
+	 */
+	public String format(int number) {
+		return format(model.getJso(), number, 1).get(0);
+	}
+
+	/**
+	 * Assigns fresh Ids to the given cell and all its descendants, eg. to a subtree that is about to be pasted or merged into the model. The Ids of all cells
+	 * are reserved as one block, so adding the subtree to the model afterwards does not cause any collision retries.
+	 *
+	 * @param cell root of the subtree, which should not be part of the model yet
+	 * @return number of cells that got a new Id
+	 */
+	public native int remap(MxICell cell) /*-{
+		var model = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this.@com.mxgraph.impl.model.MxIdAllocator::model);
+		var cellJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(cell);
+		var cells = [];
+		var stack = [ cellJS ];
+
+		while (stack.length > 0) {
+			var tmp = stack.pop();
+			cells.push(tmp);
+
+			var childCount = model.getChildCount(tmp);
+
+			for ( var i = 0; i < childCount; i++) {
+				stack.push(model.getChildAt(tmp, i));
+			}
+		}
+
+		var first = @com.mxgraph.impl.model.MxIdAllocator::reserve(Lcom/google/gwt/core/client/JavaScriptObject;I)(model, cells.length);
+
+		for ( var i = 0; i < cells.length; i++) {
+			cells[i].setId(model.prefix + (first + i) + model.postfix);
+		}
+
+		return cells.length;
+	}-*/;
+
+	private static native void scan(JavaScriptObject model) /*-{
+		var prefix = model.prefix || '';
+		var postfix = model.postfix || '';
+		var max = -1;
+
+		for ( var id in model.cells) {
+			if (id.length > prefix.length + postfix.length && id.substring(0, prefix.length) == prefix
+					&& id.substring(id.length - postfix.length) == postfix) {
+				var number = id.substring(prefix.length, id.length - postfix.length);
+
+				if (/^[0-9]+$/.test(number)) {
+					max = Math.max(max, parseInt(number, 10));
+				}
+			}
+		}
+
+		model.nextId = Math.max(model.nextId, max + 1);
+	}-*/;
+
+	private static native int reserve(JavaScriptObject model, int count) /*-{
+		// cellAdded assigns the largest numeric Id to nextId, which is therefore not necessarily free
+		var first = model.nextId;
+
+		if (model.getCell(model.prefix + first + model.postfix) != null) {
+			first++;
+		}
+
+		model.nextId = first + count;
+
+		return first;
+	}-*/;
+
+	private static native JsArrayString format(JavaScriptObject model, int first, int count) /*-{
+		var ids = new Array(count);
+
+		for ( var i = 0; i < count; i++) {
+			ids[i] = model.prefix + (first + i) + model.postfix;
+		}
+
+		return ids;
+	}-*/;
+}
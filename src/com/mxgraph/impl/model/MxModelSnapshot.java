@@ -0,0 +1,345 @@
+package com.mxgraph.impl.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Read-only view of a model as it was when the snapshot was taken, see {@link MxGraphModel#createSnapshot()}.
+ *
+ * Taking a snapshot is O(1): the snapshot shares all cells with the model and only listens to mxEvent.EXECUTED. The first time a change touches a cell, the
+ * state of the cell before the change is copied into a record of the snapshot, which is derived from the previous values kept by the change (eg. the
+ * previous parent and index of a child change). Reads go to the record of a cell if there is one, and to the live cell otherwise, so the cost of a snapshot
+ * is proportional to the number of cells that were changed after it was taken.
+ *
+ * Modifications that bypass the model (eg. changing the fields of a geometry in place or calling setters on cells directly) are not seen by the snapshot.
+ * Snapshots should be released when they are no longer needed, since they keep listening to the model until then.
+ */
+public class MxModelSnapshot {
+
+	private final MxGraphModel model;
+
+	private JavaScriptObject state;
+
+	private JavaScriptObject listener;
+
+	MxModelSnapshot(MxGraphModel model) {
+		this.model = model;
+		state = createState(model.getJso());
+		listener = addListener(model.getJso(), state);
+	}
+
+	public MxGraphModel getModel() {
+		return model;
+	}
+
+	/**
+	 * Returns the root of the snapshot.
+	 *
+	 * @return root cell
+	 */
+	public MxICell getRoot() {
+		return wrap(getRoot(state));
+	}
+
+	/**
+	 * Returns the cell for the specified Id as it was when the snapshot was taken.
+	 *
+	 * @param id Id of the cell
+	 * @return cell or null
+	 */
+	public MxICell getCell(String id) {
+		return wrap(getCell(state, id));
+	}
+
+	/**
+	 * Returns the number of cells that have been copied since the snapshot was taken.
+	 *
+	 * @return number of copied cells
+	 */
+	public native int getCopiedCellCount() /*-{
+		return this.@com.mxgraph.impl.model.MxModelSnapshot::state.count;
+	}-*/;
+
+	/**
+	 * Stops tracking the model and releases the copied cells. The snapshot can no longer be read afterwards.
+	 */
+	public void release() {
+		if (listener != null) {
+			removeListener(model.getJso(), listener);
+			listener = null;
+			state = null;
+		}
+	}
+
+	public boolean isReleased() {
+		return listener == null;
+	}
+
+	MxICell wrap(JavaScriptObject cell) {
+		return (cell != null) ? new MxSnapshotCell(this, cell) : null;
+	}
+
+	JavaScriptObject getState() {
+		if (state == null) {
+			throw new IllegalStateException("Snapshot has been released");
+		}
+
+		return state;
+	}
+
+	private static native JavaScriptObject createState(JavaScriptObject model) /*-{
+		return {
+			model : model,
+			records : {},
+			count : 0,
+			root : model.root,
+			// Ids whose cell differs from the model, null for cells added after the snapshot
+			ids : {},
+			// Id lookup of the snapshot root, built when the root has been replaced
+			lookup : null,
+			rootChanged : false
+		};
+	}-*/;
+
+	private static native JavaScriptObject getRoot(JavaScriptObject state) /*-{
+		return state.root;
+	}-*/;
+
+	private static native JavaScriptObject getCell(JavaScriptObject state, String id) /*-{
+		if (state.rootChanged) {
+			if (state.lookup == null) {
+				state.lookup = {};
+				var stack = (state.root != null) ? [ state.root ] : [];
+
+				while (stack.length > 0) {
+					var tmp = stack.pop();
+					var rec = state.records[$wnd.mxObjectIdentity.get(tmp)];
+					state.lookup[(rec != null) ? rec.id : tmp.id] = tmp;
+					var children = (rec != null) ? rec.children : tmp.children;
+
+					for ( var i = 0; children != null && i < children.length; i++) {
+						stack.push(children[i]);
+					}
+				}
+			}
+
+			var cell = state.lookup[id];
+
+			return (cell != null) ? cell : null;
+		} else if (state.ids.hasOwnProperty(id)) {
+			return state.ids[id];
+		}
+
+		return state.model.getCell(id);
+	}-*/;
+
+	private static native JavaScriptObject addListener(JavaScriptObject model, JavaScriptObject state) /*-{
+		var indexOf = $wnd.mxUtils.indexOf;
+
+		// Returns the record of the given cell if it has been created by this call, that is, if the cell has not been touched before
+		var touch = function(cell) {
+			if (cell == null) {
+				return null;
+			}
+
+			var key = $wnd.mxObjectIdentity.get(cell);
+
+			if (state.records[key] != null) {
+				return null;
+			}
+
+			var rec = {
+				id : cell.id,
+				value : cell.value,
+				style : cell.style,
+				geometry : cell.geometry,
+				visible : cell.visible,
+				collapsed : cell.collapsed,
+				parent : cell.parent,
+				source : cell.source,
+				target : cell.target,
+				children : (cell.children != null) ? cell.children.slice() : null,
+				edges : (cell.edges != null) ? cell.edges.slice() : null
+			};
+			state.records[key] = rec;
+			state.count++;
+
+			return rec;
+		};
+
+		var without = function(array, item) {
+			var result = (array != null) ? array.slice() : [];
+			var idx = indexOf(result, item);
+
+			if (idx >= 0) {
+				result.splice(idx, 1);
+			}
+
+			return result;
+		};
+
+		var withItem = function(array, item, index) {
+			var result = without(array, item);
+			result.splice((index != null) ? Math.min(index, result.length) : result.length, 0, item);
+
+			return result;
+		};
+
+		var forEachInSubtree = function(cell, fn) {
+			var stack = [ cell ];
+
+			while (stack.length > 0) {
+				var tmp = stack.pop();
+				fn(tmp);
+
+				for ( var i = 0; tmp.children != null && i < tmp.children.length; i++) {
+					stack.push(tmp.children[i]);
+				}
+			}
+		};
+
+		var listener = function(sender, evt) {
+			var change = evt.getProperty('change');
+			var rec = null;
+
+			if (change instanceof $wnd.mxRootChange) {
+				if (!state.rootChanged) {
+					state.root = change.previous;
+					state.rootChanged = true;
+				}
+			} else if (change instanceof $wnd.mxChildChange) {
+				// After execution, parent is the new and previous the old parent
+				var child = change.child;
+				rec = touch(child);
+
+				if (rec != null) {
+					rec.parent = change.previous;
+				}
+
+				if (change.previous == change.parent) {
+					rec = touch(change.parent);
+
+					if (rec != null) {
+						rec.children = withItem(rec.children, child, change.previousIndex);
+					}
+				} else {
+					rec = touch(change.previous);
+
+					if (rec != null) {
+						rec.children = withItem(rec.children, child, change.previousIndex);
+					}
+
+					rec = touch(change.parent);
+
+					if (rec != null) {
+						rec.children = without(rec.children, child);
+					}
+				}
+
+				// Removing disconnects the edges in the subtree from their terminals and adding connects them
+				var removed = change.parent == null;
+				var added = change.previous == null;
+
+				if (removed || added) {
+					forEachInSubtree(child, function(tmp) {
+						if (removed) {
+							if (!state.ids.hasOwnProperty(tmp.id)) {
+								state.ids[tmp.id] = tmp;
+							}
+						} else if (!state.ids.hasOwnProperty(tmp.id)) {
+							state.ids[tmp.id] = null;
+						}
+
+						for ( var i = 0; i < 2; i++) {
+							var terminal = (i == 0) ? tmp.source : tmp.target;
+							var terminalRec = touch(terminal);
+
+							if (terminalRec != null) {
+								terminalRec.edges = removed ? withItem(terminalRec.edges, tmp, null) : without(terminalRec.edges, tmp);
+							}
+						}
+					});
+				}
+			} else if (change instanceof $wnd.mxTerminalChange) {
+				rec = touch(change.cell);
+
+				if (rec != null) {
+					rec[change.source ? 'source' : 'target'] = change.previous;
+				}
+
+				// An unchanged terminal keeps its edges, setTerminal executes the change regardless
+				if (change.terminal != change.previous) {
+					rec = touch(change.terminal);
+
+					if (rec != null) {
+						rec.edges = without(rec.edges, change.cell);
+					}
+
+					rec = touch(change.previous);
+
+					if (rec != null) {
+						rec.edges = withItem(rec.edges, change.cell, null);
+					}
+				}
+			} else if (change instanceof $wnd.mxValueChange) {
+				rec = touch(change.cell);
+
+				if (rec != null) {
+					rec.value = change.previous;
+				}
+			} else if (change instanceof $wnd.mxStyleChange) {
+				rec = touch(change.cell);
+
+				if (rec != null) {
+					rec.style = change.previous;
+				}
+			} else if (change instanceof $wnd.mxGeometryChange) {
+				rec = touch(change.cell);
+
+				if (rec != null) {
+					rec.geometry = change.previous;
+				}
+			} else if (change instanceof $wnd.mxVisibleChange) {
+				rec = touch(change.cell);
+
+				if (rec != null) {
+					rec.visible = change.previous;
+				}
+			} else if (change instanceof $wnd.mxCollapseChange) {
+				rec = touch(change.cell);
+
+				if (rec != null) {
+					rec.collapsed = change.previous;
+				}
+			} else if (change instanceof $wnd.mxCellAttributeChange) {
+				touch(change.cell);
+				rec = state.records[$wnd.mxObjectIdentity.get(change.cell)];
+
+				// The attribute is changed in place, so the user object is copied the first time the record would share it with the cell, even if the
+				// record was created by an earlier change
+				if (rec != null && !rec.valueCopied && rec.value === change.cell.value && rec.value != null && rec.value.cloneNode != null) {
+					rec.value = rec.value.cloneNode(true);
+					rec.valueCopied = true;
+
+					if (change.previous == null) {
+						rec.value.removeAttribute(change.attribute);
+					} else {
+						rec.value.setAttribute(change.attribute, change.previous);
+					}
+				}
+			}
+
+			if (state.lookup != null && change instanceof $wnd.mxChildChange) {
+				state.lookup = null;
+			}
+		};
+
+		model.addListener($wnd.mxEvent.EXECUTED, listener);
+
+		return listener;
+	}-*/;
+
+	private static native void removeListener(JavaScriptObject model, JavaScriptObject listener) /*-{
+		model.removeListener(listener);
+	}-*/;
+}
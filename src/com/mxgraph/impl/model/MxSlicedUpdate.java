@@ -0,0 +1,171 @@
+package com.mxgraph.impl.model;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.RepeatingCommand;
+
+/**
+ * Dispatches the changes of a committed transaction in slices, see {@link MxGraphModel#endUpdateSliced(int, MxGraphModel.SlicedUpdateCallback)}.
+ *
+ * Each slice fires mxEvent.CHANGE with a partial edit that only holds the changes of the slice, so the graph processes and revalidates the view once per
+ * slice. The number of changes per slice adapts to the measured dispatch time to stay within the frame budget. Once all slices are dispatched,
+ * mxEvent.NOTIFY and mxEvent.UNDO are fired with the complete edit, so undo managers record the whole transaction.
+ *
+ * If the model ends another edit (eg. a new transaction or an undo) before all slices are dispatched, the remaining changes are dispatched at once so that
+ * the listeners see the changes in order.
+ */
+class MxSlicedUpdate implements RepeatingCommand {
+
+	private static final int INITIAL_SLICE_SIZE = 256;
+
+	private final JavaScriptObject model;
+
+	private final JavaScriptObject edit;
+
+	private final int frameBudget;
+
+	private final MxGraphModel.SlicedUpdateCallback callback;
+
+	private final int total;
+
+	private int processed;
+
+	private int sliceSize = INITIAL_SLICE_SIZE;
+
+	private JavaScriptObject endEditListener;
+
+	private MxSlicedUpdate(JavaScriptObject model, JavaScriptObject edit, int frameBudget, MxGraphModel.SlicedUpdateCallback callback) {
+		this.model = model;
+		this.edit = edit;
+		this.frameBudget = Math.max(1, frameBudget);
+		this.callback = callback;
+		this.total = getChangeCount(edit);
+	}
+
+	/**
+	 * Ends the current update of the given model and schedules the dispatch of its changes.
+	 */
+	static void start(JavaScriptObject model, int frameBudget, MxGraphModel.SlicedUpdateCallback callback) {
+		JavaScriptObject edit = detachEdit(model);
+
+		if (edit == null) {
+			// Nested or empty transaction, which has been ended synchronously
+			if (callback != null) {
+				callback.onComplete();
+			}
+		} else {
+			MxSlicedUpdate update = new MxSlicedUpdate(model, edit, frameBudget, callback);
+			update.endEditListener = update.addEndEditListener(model);
+			Scheduler.get().scheduleFixedDelay(update, 1);
+		}
+	}
+
+	@Override public boolean execute() {
+		if (processed >= total) {
+			// Already flushed
+			return false;
+		}
+
+		Duration duration = new Duration();
+		int to = Math.min(total, processed + sliceSize);
+		fireChange(model, edit, processed, to);
+		processed = to;
+
+		int elapsed = duration.elapsedMillis();
+
+		if (elapsed * 2 < frameBudget) {
+			sliceSize *= 2;
+		} else if (elapsed > frameBudget && sliceSize > 1) {
+			sliceSize /= 2;
+		}
+
+		if (callback != null) {
+			callback.onProgress(processed, total);
+		}
+
+		if (processed >= total) {
+			complete();
+			return false;
+		}
+
+		return true;
+	}
+
+	private void flush() {
+		if (processed < total) {
+			fireChange(model, edit, processed, total);
+			processed = total;
+
+			if (callback != null) {
+				callback.onProgress(processed, total);
+			}
+
+			complete();
+		}
+	}
+
+	private void complete() {
+		removeListener(model, endEditListener);
+		fireNotify(model, edit);
+
+		if (callback != null) {
+			callback.onComplete();
+		}
+	}
+
+	/**
+	 * Emulates mxGraphModel.endUpdate up to the point where the edit is dispatched and returns the edit, or ends the update normally and returns null if
+	 * this is not the outermost update or the edit is empty.
+	 */
+	private static native JavaScriptObject detachEdit(JavaScriptObject model) /*-{
+		if (model.updateLevel != 1 || model.endingUpdate || model.currentEdit.isEmpty()) {
+			model.endUpdate();
+			return null;
+		}
+
+		model.updateLevel--;
+		model.fireEvent(new $wnd.mxEventObject($wnd.mxEvent.END_EDIT));
+		model.endingUpdate = true;
+
+		try {
+			model.fireEvent(new $wnd.mxEventObject($wnd.mxEvent.END_UPDATE, 'edit', model.currentEdit));
+			model.fireEvent(new $wnd.mxEventObject($wnd.mxEvent.BEFORE_UNDO, 'edit', model.currentEdit));
+
+			var edit = model.currentEdit;
+			model.currentEdit = model.createUndoableEdit();
+
+			return edit;
+		} finally {
+			model.endingUpdate = false;
+		}
+	}-*/;
+
+	private static native int getChangeCount(JavaScriptObject edit) /*-{
+		return edit.changes.length;
+	}-*/;
+
+	private static native void fireChange(JavaScriptObject model, JavaScriptObject edit, int from, int to) /*-{
+		var slice = new $wnd.mxUndoableEdit(model, false);
+		slice.changes = edit.changes.slice(from, to);
+		model.fireEvent(new $wnd.mxEventObject($wnd.mxEvent.CHANGE, 'edit', slice, 'changes', slice.changes));
+	}-*/;
+
+	private static native void fireNotify(JavaScriptObject model, JavaScriptObject edit) /*-{
+		model.fireEvent(new $wnd.mxEventObject($wnd.mxEvent.NOTIFY, 'edit', edit, 'changes', edit.changes));
+		model.fireEvent(new $wnd.mxEventObject($wnd.mxEvent.UNDO, 'edit', edit));
+	}-*/;
+
+	private native JavaScriptObject addEndEditListener(JavaScriptObject model) /*-{
+		var self = this;
+		var listener = function(sender, evt) {
+			self.@com.mxgraph.impl.model.MxSlicedUpdate::flush()();
+		};
+		model.addListener($wnd.mxEvent.END_EDIT, listener);
+		return listener;
+	}-*/;
+
+	private static native void removeListener(JavaScriptObject model, JavaScriptObject listener) /*-{
+		model.removeListener(listener);
+	}-*/;
+}
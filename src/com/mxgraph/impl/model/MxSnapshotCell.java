@@ -0,0 +1,252 @@
+package com.mxgraph.impl.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.impl.util.WrapperUtils;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Cell of a {@link MxModelSnapshot}. Reads return the state of the cell when the snapshot was taken, all modifying methods throw
+ * {@link UnsupportedOperationException}. {@link #getJso()} returns the live cell, so the snapshot cell can be used to identify cells in the model, but
+ * passing it to model methods operates on the current state.
+ *
+ * Two snapshot cells are equal if they belong to the same snapshot and wrap the same live cell.
+ */
+public final class MxSnapshotCell implements MxICell {
+
+	private final MxModelSnapshot snapshot;
+
+	private final JavaScriptObject jso;
+
+	MxSnapshotCell(MxModelSnapshot snapshot, JavaScriptObject jso) {
+		this.snapshot = snapshot;
+		this.jso = jso;
+	}
+
+	public MxModelSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	@Override public JavaScriptObject getJso() {
+		return jso;
+	}
+
+	@Override public void setJso(JavaScriptObject jso) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public String getId() {
+		return getString(snapshot.getState(), jso, "id");
+	}
+
+	@Override public Object getValue() {
+		return getValue(snapshot.getState(), jso);
+	}
+
+	@Override public MxGeometry getGeometry() {
+		return WrapperUtils.wrap(getObject(snapshot.getState(), jso, "geometry"));
+	}
+
+	@Override public String getStyle() {
+		return getString(snapshot.getState(), jso, "style");
+	}
+
+	@Override public native boolean isVertex() /*-{
+		return this.@com.mxgraph.impl.model.MxSnapshotCell::jso.vertex == true;
+	}-*/;
+
+	@Override public native boolean isEdge() /*-{
+		return this.@com.mxgraph.impl.model.MxSnapshotCell::jso.edge == true;
+	}-*/;
+
+	@Override public native boolean isConnectable() /*-{
+		return this.@com.mxgraph.impl.model.MxSnapshotCell::jso.connectable == true;
+	}-*/;
+
+	@Override public boolean isVisible() {
+		return getBoolean(snapshot.getState(), jso, "visible");
+	}
+
+	@Override public boolean isCollapsed() {
+		return getBoolean(snapshot.getState(), jso, "collapsed");
+	}
+
+	@Override public MxICell getParent() {
+		return snapshot.wrap(getObject(snapshot.getState(), jso, "parent"));
+	}
+
+	@Override public MxICell getTerminal(boolean source) {
+		return snapshot.wrap(getObject(snapshot.getState(), jso, source ? "source" : "target"));
+	}
+
+	@Override public int getChildCount() {
+		return getCount(snapshot.getState(), jso, "children");
+	}
+
+	@Override public int getIndex(MxICell child) {
+		return getIndex(snapshot.getState(), jso, "children", child.getJso());
+	}
+
+	@Override public MxICell getChildAt(int index) {
+		return snapshot.wrap(getAt(snapshot.getState(), jso, "children", index));
+	}
+
+	@Override public int getEdgeCount() {
+		return getCount(snapshot.getState(), jso, "edges");
+	}
+
+	@Override public int getEdgeIndex(MxICell edge) {
+		return getIndex(snapshot.getState(), jso, "edges", edge.getJso());
+	}
+
+	@Override public MxICell getEdgeAt(int index) {
+		return snapshot.wrap(getAt(snapshot.getState(), jso, "edges", index));
+	}
+
+	@Override public String getAttribute(String name, String defaultValue) {
+		return getAttribute(snapshot.getState(), jso, name, defaultValue);
+	}
+
+	@Override public void setId(String id) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void setValue(Object value) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void setGeometry(MxGeometry geometry) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void setStyle(String style) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void setEdge(boolean edge) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void setVertex(boolean vertex) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void setConnectable(boolean connectable) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void setVisible(boolean visible) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void setCollapsed(boolean collapsed) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void setParent(MxICell parent) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public MxICell setTerminal(MxICell terminal, boolean isSource) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public MxICell insert(MxICell child) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public MxICell insert(MxICell child, int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public MxICell remove(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void removeFromParent() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public MxICell insertEdge(MxICell edge, boolean isOutgoing) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public MxICell removeEdge(MxICell edge, boolean isOutgoing) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void removeFromTerminal(boolean isSource) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public void setAttribute(String name, String value) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Snapshot cells cannot be cloned, clone the live cell instead.
+	 */
+	@Override public Object clone() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override public boolean equals(Object obj) {
+		if (!(obj instanceof MxSnapshotCell)) {
+			return false;
+		}
+
+		MxSnapshotCell other = (MxSnapshotCell) obj;
+
+		return snapshot == other.snapshot && jso == other.jso;
+	}
+
+	@Override public int hashCode() {
+		return jso.hashCode();
+	}
+
+	/**
+	 * Returns the record of the cell if it has been copied, or the live cell otherwise.
+	 */
+	private static native JavaScriptObject getSource(JavaScriptObject state, JavaScriptObject cell) /*-{
+		var rec = state.records[$wnd.mxObjectIdentity.get(cell)];
+		return (rec != null) ? rec : cell;
+	}-*/;
+
+	private static native String getString(JavaScriptObject state, JavaScriptObject cell, String field) /*-{
+		var value = @com.mxgraph.impl.model.MxSnapshotCell::getSource(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(state, cell)[field];
+		return (value != null) ? String(value) : null;
+	}-*/;
+
+	private static native Object getValue(JavaScriptObject state, JavaScriptObject cell) /*-{
+		return @com.mxgraph.impl.model.MxSnapshotCell::getSource(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(state, cell).value;
+	}-*/;
+
+	private static native JavaScriptObject getObject(JavaScriptObject state, JavaScriptObject cell, String field) /*-{
+		var value = @com.mxgraph.impl.model.MxSnapshotCell::getSource(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(state, cell)[field];
+		return (value != null) ? value : null;
+	}-*/;
+
+	private static native boolean getBoolean(JavaScriptObject state, JavaScriptObject cell, String field) /*-{
+		return @com.mxgraph.impl.model.MxSnapshotCell::getSource(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(state, cell)[field] == true;
+	}-*/;
+
+	private static native int getCount(JavaScriptObject state, JavaScriptObject cell, String field) /*-{
+		var array = @com.mxgraph.impl.model.MxSnapshotCell::getSource(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(state, cell)[field];
+		return (array != null) ? array.length : 0;
+	}-*/;
+
+	private static native int getIndex(JavaScriptObject state, JavaScriptObject cell, String field, JavaScriptObject item) /*-{
+		var array = @com.mxgraph.impl.model.MxSnapshotCell::getSource(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(state, cell)[field];
+		return $wnd.mxUtils.indexOf(array, item);
+	}-*/;
+
+	private static native JavaScriptObject getAt(JavaScriptObject state, JavaScriptObject cell, String field, int index) /*-{
+		var array = @com.mxgraph.impl.model.MxSnapshotCell::getSource(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(state, cell)[field];
+		return (array != null && array[index] != null) ? array[index] : null;
+	}-*/;
+
+	private static native String getAttribute(JavaScriptObject state, JavaScriptObject cell, String name, String defaultValue) /*-{
+		var userObject = @com.mxgraph.impl.model.MxSnapshotCell::getSource(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(state, cell).value;
+		var value = (userObject != null && userObject.nodeType == $wnd.mxConstants.NODETYPE_ELEMENT) ? userObject.getAttribute(name) : null;
+		return (value != null) ? value : defaultValue;
+	}-*/;
+}
@@ -0,0 +1,525 @@
+package com.mxgraph.impl.model;
+
+import java.util.List;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.impl.util.WrapperUtils;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Uniform grid over the absolute bounds of the visible vertices and edges of a model, for region queries such as rubberband selection, hit-testing and
+ * viewport culling.
+ *
+ * Absolute bounds are derived from the geometries in the model: the geometry of a vertex is offset by the origins of its ancestors, relative geometries are
+ * resolved against the bounds of the parent vertex, and edges span the centers of their terminals, their terminal points and their control points. They
+ * do not include styles or labels, so they approximate the view state of a cell. Cells that are invisible or have an invisible ancestor are not indexed.
+ *
+ * Geometry, child and visibility changes refresh the affected subtree and the edges connected to it, and terminal changes refresh the edge. Cells that span
+ * more than {@link #MAX_CELLS_PER_ENTRY} grid cells are kept in a separate list that is checked by every query.
+ *
+ * @see MxGraphModel#setSpatialIndexEnabled(boolean)
+ */
+public class MxSpatialIndex extends MxGraphModelIndex {
+
+	/**
+	 * Default width and height of a grid cell.
+	 */
+	public static final double DEFAULT_GRID_SIZE = 200;
+
+	/**
+	 * Maximum number of grid cells an entry is stored in.
+	 */
+	public static final int MAX_CELLS_PER_ENTRY = 256;
+
+	/**
+	 * Approximate size of an entry in bytes, without its grid references.
+	 */
+	private static final int ENTRY_SIZE = 120;
+
+	/**
+	 * Approximate size of a reference from a grid cell to an entry in bytes.
+	 */
+	private static final int REFERENCE_SIZE = 40;
+
+	/**
+	 * Approximate size of a grid cell in bytes.
+	 */
+	private static final int BUCKET_SIZE = 64;
+
+	private final double gridSize;
+
+	private JavaScriptObject state;
+
+	public MxSpatialIndex(MxGraphModel model) {
+		this(model, DEFAULT_GRID_SIZE);
+	}
+
+	/**
+	 * Constructs a spatial index with the given grid size, which should be in the order of the typical cell size.
+	 *
+	 * @param model indexed model
+	 * @param gridSize width and height of a grid cell
+	 */
+	public MxSpatialIndex(MxGraphModel model, double gridSize) {
+		super(model);
+		this.gridSize = gridSize;
+		state = createState(gridSize);
+	}
+
+	public double getGridSize() {
+		return gridSize;
+	}
+
+	/**
+	 * Returns the cells whose absolute bounds intersect the given rectangle.
+	 *
+	 * @param x x-coordinate of the region
+	 * @param y y-coordinate of the region
+	 * @param width width of the region
+	 * @param height height of the region
+	 * @return intersecting cells in no particular order
+	 */
+	public List<MxICell> getCellsInRegion(double x, double y, double width, double height) {
+		return WrapperUtils.wrapList(getCellsInRegion(state, x, y, width, height));
+	}
+
+	/**
+	 * Returns the cell whose absolute bounds are closest to the given point. The distance is 0 for all cells that contain the point, in which case the
+	 * topmost one in terms of depth and child order is not determined; use {@link #getCellsInRegion(double, double, double, double)} with an empty rectangle
+	 * to get all of them.
+	 *
+	 * @param x x-coordinate of the point
+	 * @param y y-coordinate of the point
+	 * @return nearest cell or null if the index is empty
+	 */
+	public MxICell getNearestCell(double x, double y) {
+		return WrapperUtils.wrap(getNearestCell(state, x, y));
+	}
+
+	/**
+	 * Returns the number of indexed cells.
+	 *
+	 * @return number of cells
+	 */
+	public native int size() /*-{
+		return this.@com.mxgraph.impl.model.MxSpatialIndex::state.size;
+	}-*/;
+
+	@Override public native int getMemoryEstimate() /*-{
+		var state = this.@com.mxgraph.impl.model.MxSpatialIndex::state;
+		return state.size * @com.mxgraph.impl.model.MxSpatialIndex::ENTRY_SIZE + state.references
+				* @com.mxgraph.impl.model.MxSpatialIndex::REFERENCE_SIZE + state.bucketCount * @com.mxgraph.impl.model.MxSpatialIndex::BUCKET_SIZE;
+	}-*/;
+
+	@Override protected void clear() {
+		state = createState(gridSize);
+	}
+
+	@Override protected void rebuild() {
+		state = createState(gridSize);
+		refresh(state, getModel().getJso(), null);
+	}
+
+	@Override protected void processChange(JavaScriptObject change) {
+		JavaScriptObject cell = getChangedBoundsCell(change);
+
+		if (cell != null) {
+			refresh(state, getModel().getJso(), cell);
+		}
+	}
+
+	private static native JavaScriptObject createState(double gridSize) /*-{
+		return {
+			gridSize : gridSize,
+			entries : {},
+			grid : {},
+			large : {},
+			size : 0,
+			references : 0,
+			bucketCount : 0,
+			minX : 0,
+			minY : 0,
+			maxX : -1,
+			maxY : -1
+		};
+	}-*/;
+
+	/**
+	 * Returns the root of the subtree whose bounds may have changed, or null if the change does not affect the index.
+	 */
+	private static JavaScriptObject getChangedBoundsCell(JavaScriptObject change) {
+		JavaScriptObject cell = getChangedCell(change);
+
+		return (cell != null) ? cell : getChangedAttributeCell(change);
+	}
+
+	private static native JavaScriptObject getChangedAttributeCell(JavaScriptObject change) /*-{
+		if (change instanceof $wnd.mxGeometryChange || change instanceof $wnd.mxVisibleChange) {
+			return change.cell;
+		}
+
+		return null;
+	}-*/;
+
+	/**
+	 * Recomputes the entries of the subtree of the given cell and of all edges connected to it, or of the whole model if cell is null.
+	 */
+	private static native void refresh(JavaScriptObject state, JavaScriptObject model, JavaScriptObject cell) /*-{
+		var size = state.gridSize;
+		var rects = {};
+
+		// Absolute bounds of a vertex, cached for the duration of the refresh
+		var getRect = function(vertex) {
+			var key = $wnd.mxObjectIdentity.get(vertex);
+
+			if (key in rects) {
+				return rects[key];
+			}
+
+			var geo = model.getGeometry(vertex);
+			var rect = null;
+
+			if (geo != null) {
+				var parent = model.getParent(vertex);
+				var parentRect = (geo.relative && parent != null && model.isVertex(parent)) ? getRect(parent) : null;
+
+				if (parentRect != null) {
+					var offset = geo.offset;
+					rect = {
+						x : parentRect.x + geo.x * parentRect.width + (offset != null ? offset.x : 0),
+						y : parentRect.y + geo.y * parentRect.height + (offset != null ? offset.y : 0),
+						width : geo.width,
+						height : geo.height
+					};
+				} else {
+					var origin = getOrigin(parent);
+					rect = {
+						x : origin.x + geo.x,
+						y : origin.y + geo.y,
+						width : geo.width,
+						height : geo.height
+					};
+				}
+			}
+
+			rects[key] = rect;
+
+			return rect;
+		};
+
+		var getOrigin = function(parent) {
+			while (parent != null) {
+				if (model.isVertex(parent)) {
+					var rect = getRect(parent);
+
+					if (rect != null) {
+						return rect;
+					}
+				}
+
+				parent = model.getParent(parent);
+			}
+
+			return {
+				x : 0,
+				y : 0
+			};
+		};
+
+		var getEdgeRect = function(edge) {
+			var geo = model.getGeometry(edge);
+			var origin = getOrigin(model.getParent(edge));
+			var x1 = Infinity, y1 = Infinity, x2 = -Infinity, y2 = -Infinity;
+			var add = function(x, y) {
+				x1 = Math.min(x1, x);
+				y1 = Math.min(y1, y);
+				x2 = Math.max(x2, x);
+				y2 = Math.max(y2, y);
+			};
+
+			for ( var i = 0; i < 2; i++) {
+				var terminal = model.getTerminal(edge, i == 0);
+				var rect = (terminal != null && model.isVertex(terminal)) ? getRect(terminal) : null;
+
+				if (rect != null) {
+					add(rect.x + rect.width / 2, rect.y + rect.height / 2);
+				} else if (geo != null) {
+					var pt = geo.getTerminalPoint(i == 0);
+
+					if (pt != null) {
+						add(origin.x + pt.x, origin.y + pt.y);
+					}
+				}
+			}
+
+			if (geo != null && geo.points != null) {
+				for ( var i = 0; i < geo.points.length; i++) {
+					add(origin.x + geo.points[i].x, origin.y + geo.points[i].y);
+				}
+			}
+
+			return (x1 <= x2) ? {
+				x : x1,
+				y : y1,
+				width : x2 - x1,
+				height : y2 - y1
+			} : null;
+		};
+
+		// Returns true if the cell is part of the model and it and all its ancestors are visible
+		var isShown = function(tmp) {
+			var root = model.getRoot();
+
+			while (tmp != null) {
+				if (!model.isVisible(tmp)) {
+					return false;
+				} else if (tmp == root) {
+					return true;
+				}
+
+				tmp = model.getParent(tmp);
+			}
+
+			return false;
+		};
+
+		var remove = function(id) {
+			var entry = state.entries[id];
+
+			if (entry != null) {
+				if (entry.keys == null) {
+					delete state.large[id];
+				} else {
+					for ( var i = 0; i < entry.keys.length; i++) {
+						var bucket = state.grid[entry.keys[i]];
+						delete bucket.cells[id];
+
+						if (--bucket.count == 0) {
+							delete state.grid[entry.keys[i]];
+							state.bucketCount--;
+						}
+					}
+
+					state.references -= entry.keys.length;
+				}
+
+				delete state.entries[id];
+				state.size--;
+			}
+		};
+
+		var put = function(id, tmp, rect) {
+			var gx1 = Math.floor(rect.x / size), gy1 = Math.floor(rect.y / size);
+			var gx2 = Math.floor((rect.x + rect.width) / size), gy2 = Math.floor((rect.y + rect.height) / size);
+			var entry = {
+				cell : tmp,
+				x : rect.x,
+				y : rect.y,
+				width : rect.width,
+				height : rect.height,
+				keys : null
+			};
+
+			if ((gx2 - gx1 + 1) * (gy2 - gy1 + 1) > @com.mxgraph.impl.model.MxSpatialIndex::MAX_CELLS_PER_ENTRY) {
+				state.large[id] = entry;
+			} else {
+				entry.keys = [];
+
+				for ( var gx = gx1; gx <= gx2; gx++) {
+					for ( var gy = gy1; gy <= gy2; gy++) {
+						var key = gx + ',' + gy;
+						var bucket = state.grid[key];
+
+						if (bucket == null) {
+							bucket = {
+								cells : {},
+								count : 0
+							};
+							state.grid[key] = bucket;
+							state.bucketCount++;
+						}
+
+						bucket.cells[id] = entry;
+						bucket.count++;
+						entry.keys.push(key);
+					}
+				}
+
+				state.references += entry.keys.length;
+
+				if (state.maxX < state.minX) {
+					state.minX = gx1;
+					state.minY = gy1;
+					state.maxX = gx2;
+					state.maxY = gy2;
+				} else {
+					state.minX = Math.min(state.minX, gx1);
+					state.minY = Math.min(state.minY, gy1);
+					state.maxX = Math.max(state.maxX, gx2);
+					state.maxY = Math.max(state.maxY, gy2);
+				}
+			}
+
+			state.entries[id] = entry;
+			state.size++;
+		};
+
+		var start = (cell != null) ? cell : model.getRoot();
+
+		if (start == null) {
+			return;
+		}
+
+		var edges = {};
+		var cells = [ start ];
+		var shown = [ isShown(start) ];
+
+		while (cells.length > 0) {
+			var tmp = cells.pop();
+			var visible = shown.pop();
+			var id = $wnd.mxObjectIdentity.get(tmp);
+
+			if (model.isEdge(tmp)) {
+				edges[id] = tmp;
+			} else {
+				remove(id);
+
+				if (visible && model.isVertex(tmp)) {
+					var rect = getRect(tmp);
+
+					if (rect != null) {
+						put(id, tmp, rect);
+					}
+				}
+
+				var edgeCount = model.getEdgeCount(tmp);
+
+				for ( var i = 0; i < edgeCount; i++) {
+					var edge = model.getEdgeAt(tmp, i);
+					edges[$wnd.mxObjectIdentity.get(edge)] = edge;
+				}
+			}
+
+			var childCount = model.getChildCount(tmp);
+
+			for ( var i = 0; i < childCount; i++) {
+				var child = model.getChildAt(tmp, i);
+				cells.push(child);
+				shown.push(visible && model.isVisible(child));
+			}
+		}
+
+		for ( var id in edges) {
+			var edge = edges[id];
+			remove(id);
+
+			if (isShown(edge)) {
+				var rect = getEdgeRect(edge);
+
+				if (rect != null) {
+					put(id, edge, rect);
+				}
+			}
+		}
+	}-*/;
+
+	private static native JavaScriptObject getCellsInRegion(JavaScriptObject state, double x, double y, double width, double height) /*-{
+		var size = state.gridSize;
+		var result = [];
+		var seen = {};
+		var test = function(id, entry) {
+			if (!seen[id] && entry.x <= x + width && entry.y <= y + height && entry.x + entry.width >= x && entry.y + entry.height >= y) {
+				result.push(entry.cell);
+			}
+
+			seen[id] = true;
+		};
+
+		for ( var id in state.large) {
+			test(id, state.large[id]);
+		}
+
+		// Clips the region to the occupied grid cells
+		var gx1 = Math.max(state.minX, Math.floor(x / size)), gy1 = Math.max(state.minY, Math.floor(y / size));
+		var gx2 = Math.min(state.maxX, Math.floor((x + width) / size)), gy2 = Math.min(state.maxY, Math.floor((y + height) / size));
+
+		for ( var gx = gx1; gx <= gx2; gx++) {
+			for ( var gy = gy1; gy <= gy2; gy++) {
+				var bucket = state.grid[gx + ',' + gy];
+
+				if (bucket != null) {
+					for ( var id in bucket.cells) {
+						test(id, bucket.cells[id]);
+					}
+				}
+			}
+		}
+
+		return result;
+	}-*/;
+
+	private static native JavaScriptObject getNearestCell(JavaScriptObject state, double x, double y) /*-{
+		var size = state.gridSize;
+		var best = null;
+		var bestDistance = Infinity;
+		var test = function(entry) {
+			var dx = Math.max(entry.x - x, 0, x - entry.x - entry.width);
+			var dy = Math.max(entry.y - y, 0, y - entry.y - entry.height);
+			var distance = Math.sqrt(dx * dx + dy * dy);
+
+			if (distance < bestDistance) {
+				best = entry.cell;
+				bestDistance = distance;
+			}
+		};
+
+		for ( var id in state.large) {
+			test(state.large[id]);
+		}
+
+		if (state.maxX < state.minX) {
+			return best;
+		}
+
+		var cx = Math.floor(x / size), cy = Math.floor(y / size);
+
+		var visit = function(gx, gy) {
+			var bucket = state.grid[gx + ',' + gy];
+
+			if (bucket != null) {
+				for ( var id in bucket.cells) {
+					test(bucket.cells[id]);
+				}
+			}
+		};
+
+		// Rings closer than the occupied bounds are empty, rings beyond them have nothing left to visit
+		var minRing = Math.max(0, state.minX - cx, cx - state.maxX, state.minY - cy, cy - state.maxY);
+		var maxRing = Math.max(cx - state.minX, state.maxX - cx, cy - state.minY, state.maxY - cy);
+
+		// Cells outside of ring r are at least (r - 1) * size away from the point
+		for ( var r = minRing; r <= maxRing && bestDistance > (r - 1) * size; r++) {
+			// Only the border of the ring within the occupied bounds, the inside has been visited
+			var gx1 = Math.max(cx - r, state.minX), gx2 = Math.min(cx + r, state.maxX);
+			var gy1 = Math.max(cy - r, state.minY), gy2 = Math.min(cy + r, state.maxY);
+
+			for ( var gx = gx1; gx <= gx2; gx++) {
+				if (gx == cx - r || gx == cx + r) {
+					for ( var gy = gy1; gy <= gy2; gy++) {
+						visit(gx, gy);
+					}
+				} else {
+					if (cy - r >= state.minY) {
+						visit(gx, cy - r);
+					}
+
+					if (r > 0 && cy + r <= state.maxY) {
+						visit(gx, cy + r);
+					}
+				}
+			}
+		}
+
+		return best;
+	}-*/;
+}
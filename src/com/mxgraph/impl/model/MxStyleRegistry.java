@@ -0,0 +1,203 @@
+package com.mxgraph.impl.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Registry of the distinct style strings of a model, see {@link MxGraphModel#setStyleRegistryEnabled(boolean)}.
+ *
+ * Every style string that is assigned to a cell through the model is replaced by a canonical instance, so cells with the same style share one string, and
+ * the key/value pairs of each distinct style are parsed once and cached. {@link #getStyleValue(MxICell, String)} is therefore a hash lookup. Only the
+ * style string of the cell is parsed, that is, named styles of the stylesheet and its defaults are not resolved; use the graph for the effective style of
+ * a cell.
+ *
+ * At most {@link #MAX_ENTRIES} styles are cached. Styles beyond that limit, which usually means that the styles are generated per cell, are parsed on
+ * every lookup and not interned.
+ */
+public class MxStyleRegistry extends MxGraphModelIndex {
+
+	/**
+	 * Maximum number of cached styles.
+	 */
+	public static final int MAX_ENTRIES = 4096;
+
+	/**
+	 * Approximate size of an entry in bytes, without the style string and its pairs.
+	 */
+	private static final int ENTRY_SIZE = 96;
+
+	/**
+	 * Approximate size of a parsed key/value pair in bytes.
+	 */
+	private static final int PAIR_SIZE = 48;
+
+	private JavaScriptObject state = createState();
+
+	public MxStyleRegistry(MxGraphModel model) {
+		super(model);
+	}
+
+	/**
+	 * Returns the canonical instance of the given style string and caches its parsed pairs.
+	 *
+	 * @param style style string
+	 * @return canonical style string
+	 */
+	public String intern(String style) {
+		return intern(state, style);
+	}
+
+	/**
+	 * Returns the value for the given key in the style of the given cell, or null if the style does not define the key or sets it to none.
+	 *
+	 * @param cell cell whose style should be read
+	 * @param key style key, eg. fillColor
+	 * @return value or null
+	 */
+	public String getStyleValue(MxICell cell, String key) {
+		return getStyleValue(state, getStyle(cell.getJso()), key);
+	}
+
+	/**
+	 * Returns the value for the given key in the given style string, or null if the style does not define the key or sets it to none.
+	 *
+	 * @param style style string
+	 * @param key style key, eg. fillColor
+	 * @return value or null
+	 */
+	public String getStyleValue(String style, String key) {
+		return getStyleValue(state, style, key);
+	}
+
+	/**
+	 * Returns the number of cached styles.
+	 *
+	 * @return number of styles
+	 */
+	public native int size() /*-{
+		return this.@com.mxgraph.impl.model.MxStyleRegistry::state.size;
+	}-*/;
+
+	@Override public native int getMemoryEstimate() /*-{
+		var state = this.@com.mxgraph.impl.model.MxStyleRegistry::state;
+		return state.size * @com.mxgraph.impl.model.MxStyleRegistry::ENTRY_SIZE + state.chars * 2 + state.pairs
+				* @com.mxgraph.impl.model.MxStyleRegistry::PAIR_SIZE;
+	}-*/;
+
+	@Override protected void clear() {
+		state = createState();
+	}
+
+	@Override protected void rebuild() {
+		state = createState();
+		internSubtree(state, getModel().getJso(), null);
+	}
+
+	@Override protected void processChange(JavaScriptObject change) {
+		internChange(state, getModel().getJso(), change);
+	}
+
+	private static native JavaScriptObject createState() /*-{
+		return {
+			entries : {},
+			size : 0,
+			chars : 0,
+			pairs : 0
+		};
+	}-*/;
+
+	private static native String getStyle(JavaScriptObject cell) /*-{
+		return (cell.style != null) ? cell.style : null;
+	}-*/;
+
+	/**
+	 * Returns the entry for the given style, creating it if the registry is not full, or a transient entry otherwise.
+	 */
+	private static native JavaScriptObject getEntry(JavaScriptObject state, String style) /*-{
+		// Prefixed so that styles cannot clash with properties of Object
+		var key = '$' + style;
+		var entry = state.entries[key];
+
+		if (entry == null) {
+			entry = {
+				style : style,
+				values : {},
+				names : []
+			};
+
+			var tokens = style.split(';');
+			var pairs = 0;
+
+			for ( var i = 0; i < tokens.length; i++) {
+				var pos = tokens[i].indexOf('=');
+
+				if (pos >= 0) {
+					var value = tokens[i].substring(pos + 1);
+					entry.values['$' + tokens[i].substring(0, pos)] = (value != $wnd.mxConstants.NONE) ? value : null;
+					pairs++;
+				} else if (tokens[i].length > 0) {
+					entry.names.push(tokens[i]);
+				}
+			}
+
+			if (state.size < @com.mxgraph.impl.model.MxStyleRegistry::MAX_ENTRIES) {
+				state.entries[key] = entry;
+				state.size++;
+				state.chars += style.length;
+				state.pairs += pairs;
+			}
+		}
+
+		return entry;
+	}-*/;
+
+	private static native String intern(JavaScriptObject state, String style) /*-{
+		if (style == null) {
+			return null;
+		}
+
+		return @com.mxgraph.impl.model.MxStyleRegistry::getEntry(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;)(state, style).style;
+	}-*/;
+
+	private static native String getStyleValue(JavaScriptObject state, String style, String key) /*-{
+		if (style == null || style.length == 0) {
+			return null;
+		}
+
+		var value = @com.mxgraph.impl.model.MxStyleRegistry::getEntry(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;)(state, style).values['$' + key];
+
+		return (value != null) ? value : null;
+	}-*/;
+
+	/**
+	 * Replaces the styles of the cells in the subtree of the given cell, or of all cells if cell is null, by their canonical instances. The cells are
+	 * updated in place, since the content of the style does not change.
+	 */
+	private static native void internSubtree(JavaScriptObject state, JavaScriptObject model, JavaScriptObject cell) /*-{
+		var start = (cell != null) ? cell : model.getRoot();
+
+		@com.mxgraph.impl.model.MxGraphModelIndex::visitSubtree(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(model, start, function(tmp) {
+			if (tmp.style != null) {
+				tmp.style = @com.mxgraph.impl.model.MxStyleRegistry::intern(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;)(state, tmp.style);
+			}
+		});
+	}-*/;
+
+	private static native void internChange(JavaScriptObject state, JavaScriptObject model, JavaScriptObject change) /*-{
+		var intern = @com.mxgraph.impl.model.MxStyleRegistry::intern(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;);
+
+		if (change instanceof $wnd.mxStyleChange) {
+			// Also interns the previous style, which is kept for undo
+			if (change.cell.style != null) {
+				change.cell.style = intern(state, change.cell.style);
+				change.style = change.cell.style;
+			}
+
+			if (change.previous != null) {
+				change.previous = intern(state, change.previous);
+			}
+		} else if (change instanceof $wnd.mxChildChange && change.parent != null) {
+			@com.mxgraph.impl.model.MxStyleRegistry::internSubtree(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(state, model, change.child);
+		}
+	}-*/;
+}
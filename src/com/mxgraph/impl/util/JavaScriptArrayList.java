@@ -0,0 +1,52 @@
+package com.mxgraph.impl.util;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.jso.IJavaScriptWrapper;
+
+/**
+ * Read-only list view of a JavaScript array. Elements are wrapped on demand in {@link #get(int)} using {@link WrapperUtils#wrap(JavaScriptObject)}, so
+ * callers that only check the size or read a few elements do not pay for wrapping the whole array. The view is backed by the array, hence changes made to
+ * the array by mxGraph (eg. to the children array of a cell) are visible through the view.
+ *
+ * @param <C> type of the wrappers
+ */
+class JavaScriptArrayList<C extends IJavaScriptWrapper> extends AbstractList<C> implements RandomAccess {
+
+	private final JavaScriptObject array;
+
+	JavaScriptArrayList(JavaScriptObject array) {
+		this.array = array;
+	}
+
+	/**
+	 * Gets the JavaScript array backing this view.
+	 *
+	 * @return JavaScript array
+	 */
+	JavaScriptObject getJsArray() {
+		return array;
+	}
+
+	@SuppressWarnings("unchecked") @Override public C get(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+
+		return (C) WrapperUtils.wrap(get(array, index));
+	}
+
+	@Override public int size() {
+		return size(array);
+	}
+
+	private static native int size(JavaScriptObject array) /*-{
+		return array.length;
+	}-*/;
+
+	private static native JavaScriptObject get(JavaScriptObject array, int index) /*-{
+		return array[index];
+	}-*/;
+}
@@ -0,0 +1,193 @@
+package com.mxgraph.impl.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.mxgraph.jso.IJavaScriptWrapper;
+
+/**
+ * Read-only map view of a JavaScript object used as a dictionary, eg. the <code>cells</code> object of mxGraphModel. Lookups are performed directly on the
+ * JavaScript object and values are wrapped only when they are read. The view is live: it reflects all changes made to the JavaScript object after the view
+ * was created.
+ *
+ * Subclasses can override {@link #getObject()} to resolve the backing object on every access, which is needed if the owner replaces the object (the graph
+ * model creates a new cells dictionary when its root changes).
+ *
+ * @param <V> type of the wrappers
+ */
+public class JavaScriptObjectMap<V extends IJavaScriptWrapper> extends AbstractMap<String, V> {
+
+	private final JavaScriptObject object;
+
+	private Set<Map.Entry<String, V>> entrySet;
+
+	public JavaScriptObjectMap(JavaScriptObject object) {
+		this.object = object;
+	}
+
+	/**
+	 * Gets the JavaScript object backing this view. May return null, in which case the view is empty.
+	 *
+	 * @return backing JavaScript object
+	 */
+	protected JavaScriptObject getObject() {
+		return object;
+	}
+
+	@SuppressWarnings("unchecked") @Override public V get(Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+
+		return (V) WrapperUtils.wrap(get(getObject(), (String) key));
+	}
+
+	@Override public boolean containsKey(Object key) {
+		return key instanceof String && containsKey(getObject(), (String) key);
+	}
+
+	@Override public int size() {
+		return size(getObject());
+	}
+
+	@Override public boolean isEmpty() {
+		return size(getObject()) == 0;
+	}
+
+	@Override public Set<Map.Entry<String, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<String, V>>() {
+
+				@Override public Iterator<Map.Entry<String, V>> iterator() {
+					return new EntryIterator(getObject());
+				}
+
+				@Override public int size() {
+					return JavaScriptObjectMap.this.size();
+				}
+			};
+		}
+
+		return entrySet;
+	}
+
+	private class EntryIterator implements Iterator<Map.Entry<String, V>> {
+
+		private final JavaScriptObject object;
+
+		private final JsArrayString keys;
+
+		private int index;
+
+		EntryIterator(JavaScriptObject object) {
+			this.object = object;
+			this.keys = keys(object);
+		}
+
+		@Override public boolean hasNext() {
+			return index < keys.length();
+		}
+
+		@Override public Map.Entry<String, V> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return new Entry(object, keys.get(index++));
+		}
+
+		@Override public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * Entry whose value is looked up and wrapped when it is first read.
+	 */
+	private class Entry implements Map.Entry<String, V> {
+
+		private final JavaScriptObject object;
+
+		private final String key;
+
+		Entry(JavaScriptObject object, String key) {
+			this.object = object;
+			this.key = key;
+		}
+
+		@Override public String getKey() {
+			return key;
+		}
+
+		@SuppressWarnings("unchecked") @Override public V getValue() {
+			return (V) WrapperUtils.wrap(get(object, key));
+		}
+
+		@Override public V setValue(V value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override public boolean equals(Object obj) {
+			if (!(obj instanceof Map.Entry)) {
+				return false;
+			}
+
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+			V value = getValue();
+
+			return key.equals(other.getKey()) && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+		}
+
+		@Override public int hashCode() {
+			V value = getValue();
+			return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+	}
+
+	private static native JavaScriptObject get(JavaScriptObject object, String key) /*-{
+		//workaround for issue 4486 http://code.google.com/p/google-web-toolkit/issues/detail?id=4486
+		if (object == null || key == "__gwt_ObjectId" || !Object.prototype.hasOwnProperty.call(object, key)) {
+			return null;
+		}
+
+		return object[key];
+	}-*/;
+
+	private static native boolean containsKey(JavaScriptObject object, String key) /*-{
+		return object != null && key != "__gwt_ObjectId" && Object.prototype.hasOwnProperty.call(object, key);
+	}-*/;
+
+	private static native int size(JavaScriptObject object) /*-{
+		var count = 0;
+
+		if (object != null) {
+			for ( var key in object) {
+				if (key != "__gwt_ObjectId" && Object.prototype.hasOwnProperty.call(object, key)) {
+					count++;
+				}
+			}
+		}
+
+		return count;
+	}-*/;
+
+	private static native JsArrayString keys(JavaScriptObject object) /*-{
+		var keys = [];
+
+		if (object != null) {
+			for ( var key in object) {
+				if (key != "__gwt_ObjectId" && Object.prototype.hasOwnProperty.call(object, key)) {
+					keys.push(key);
+				}
+			}
+		}
+
+		return keys;
+	}-*/;
+}
@@ -3,10 +3,7 @@ package com.mxgraph.impl.util;
 import java.util.List;
 import java.util.Map;
 
-import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
-import com.mxgraph.impl.model.MxCell;
-import com.mxgraph.impl.model.MxGraphModel;
 import com.mxgraph.impl.view.MxEventSource.MxIEventListener;
 import com.mxgraph.jso.IJavaScriptWrapper;
 
@@ -18,7 +15,8 @@ public class WrapperUtils {
 
 	/**
 	 * Performs wrapping on given JavaScriptObject. Wrapper is chosen and instantiated based on the constructor of the passed object. For passed null returns
-	 * null. For unknown objects it will raise a runtime exception.
+	 * null. For unknown objects it will raise a runtime exception. The wrapper is cached on the object, so wrapping the same object again returns the same
+	 * wrapper without allocating.
 	 *
 	 * @param jso object that will be wrapped
 	 * @return initialized wrapper
@@ -29,130 +27,194 @@ public class WrapperUtils {
 			return null;
 		}
 
-		String className = getJavaScriptClassName(jso);
+		IJavaScriptWrapper wrapper = getCachedWrapper(jso);
 
-		IJavaScriptWrapper wrapper = createWrapper(className);
+		if (wrapper != null) {
+			return wrapper;
+		}
+
+		wrapper = createWrapper(jso);
 
 		if (wrapper == null) {
-			throw new RuntimeException("Unsupported class : " + className);
+			throw new RuntimeException("Unsupported class : " + getJavaScriptClassName(jso));
 		}
 
-		wrapper.setJso(jso);
+		cacheWrapper(jso, wrapper);
 
 		return wrapper;
 	}
 
-	private static IJavaScriptWrapper createWrapper(String className) {
-		IJavaScriptWrapper wrapper = null;
-
-		// GWT compiler cannot dynamically create the class with GWT.create(classLiteral) method. Hence the if-else.
-				if (className.equalsIgnoreCase( getSimpleName(MxCell.class))) {
-					wrapper = GWT.create(MxCell.class);
-		//		} else if (className.equals(getSimpleName(mxPoint.class))) {
-		//			wrapper = GWT.create(mxPoint.class);
-		//		} else if (className.equals(getSimpleName(mxConnectionConstraint.class))) {
-		//			wrapper = GWT.create(mxConnectionConstraint.class);
-				} else if (className.equalsIgnoreCase(getSimpleName(MxGraphModel.class))) {
-					wrapper = GWT.create(MxGraphModel.class);
-		//		} else if (className.equals(getSimpleName(mxGraph.class))) {
-		//			wrapper = GWT.create(mxGraph.class);
-		//		} else if (className.equals(getSimpleName(mxGeometry.class))) {
-		//			wrapper = GWT.create(mxGeometry.class);
-		//		} else if (className.equals(getSimpleName(mxXmlRequest.class))) {
-		//			wrapper = GWT.create(mxXmlRequest.class);
-		//		} else if (className.equals(getSimpleName(mxStylesheet.class))) {
-		//			wrapper = GWT.create(mxStylesheet.class);
-		//		} else if (className.equals(getSimpleName(mxGraphHandler.class))) {
-		//			wrapper = GWT.create(mxGraphHandler.class);
-		//		} else if (className.equals(getSimpleName(mxGraphView.class))) {
-		//			wrapper = GWT.create(mxGraphView.class);
-		//		} else if (className.equals(getSimpleName(mxImage.class))) {
-		//			wrapper = GWT.create(mxImage.class);
-		//		} else if (className.equals(getSimpleName(mxConnectionHandler.class))) {
-		//			wrapper = GWT.create(mxConnectionHandler.class);
-		//		} else if (className.equals(getSimpleName(mxCellRenderer.class))) {
-		//			wrapper = GWT.create(mxCellRenderer.class);
-		//		} else if (className.equals(getSimpleName(mxGraphSelectionModel.class))) {
-		//			wrapper = GWT.create(mxGraphSelectionModel.class);
-		//		} else if (className.equals(getSimpleName(mxCellState.class))) {
-		//			wrapper = GWT.create(mxCellState.class);
-		//		} else if (className.equals(getSimpleName(mxEventObject.class))) {
-		//			wrapper = GWT.create(mxEventObject.class);
-		//		} else if (className.equals(getSimpleName(mxUndoableEdit.class))) {
-		//			wrapper = GWT.create(mxUndoableEdit.class);
-		//		} else if (className.equals(getSimpleName(mxUndoManager.class))) {
-		//			wrapper = GWT.create(mxUndoManager.class);
-		//		} else if (className.equals(getSimpleName(mxRootChange.class))) {
-		//			wrapper = GWT.create(mxRootChange.class);
-		//		} else if (className.equals(getSimpleName(mxChildChange.class))) {
-		//			wrapper = GWT.create(mxChildChange.class);
-		//		} else if (className.equals(getSimpleName(mxTerminalChange.class))) {
-		//			wrapper = GWT.create(mxTerminalChange.class);
-		//		} else if (className.equals(getSimpleName(mxValueChange.class))) {
-		//			wrapper = GWT.create(mxValueChange.class);
-		//		} else if (className.equals(getSimpleName(mxStyleChange.class))) {
-		//			wrapper = GWT.create(mxStyleChange.class);
-		//		} else if (className.equals(getSimpleName(mxGeometryChange.class))) {
-		//			wrapper = GWT.create(mxGeometryChange.class);
-		//		} else if (className.equals(getSimpleName(mxCollapseChange.class))) {
-		//			wrapper = GWT.create(mxCollapseChange.class);
-		//		} else if (className.equals(getSimpleName(mxVisibleChange.class))) {
-		//			wrapper = GWT.create(mxVisibleChange.class);
-		//		} else if (className.equals(getSimpleName(mxCellAttributeChange.class))) {
-		//			wrapper = GWT.create(mxCellAttributeChange.class);
-		//		} else if (className.equals(getSimpleName(mxRectangle.class))) {
-		//			wrapper = GWT.create(mxRectangle.class);
-		//		} else if (className.equals(getSimpleName(mxDragSource.class))) {
-		//			wrapper = GWT.create(mxDragSource.class);
-		//		} else if (className.equals(getSimpleName(mxMouseEvent.class))) {
-		//			wrapper = GWT.create(mxMouseEvent.class);
-		//		} else if (className.equals(getSimpleName(mxMorphing.class))) {
-		//			wrapper = GWT.create(mxMorphing.class);
-		//		} else if (className.equals(getSimpleName(mxPopupMenu.class))) {
-		//			wrapper = GWT.create(mxPopupMenu.class);
-		//		} else if (className.equals(getSimpleName(mxRectangleShape.class))) {
-		//			wrapper = GWT.create(mxRectangleShape.class);
-		//		} else if (className.equals(getSimpleName(mxPanningHandler.class))) {
-		//			wrapper = GWT.create(mxPanningHandler.class);
-		//		} else if (className.equals(getSimpleName(mxTooltipHandler.class))) {
-		//			wrapper = GWT.create(mxTooltipHandler.class);
-		//		} else if (className.equals(getSimpleName(mxPanningManager.class))) {
-		//			wrapper = GWT.create(mxPanningManager.class);
-		//		} else if (className.equals(getSimpleName(mxCellEditor.class))) {
-		//			wrapper = GWT.create(mxCellEditor.class);
-		//		} else if (className.equals(getSimpleName(mxPolyline.class))) {
-		//			wrapper = GWT.create(mxPolyline.class);
-		//		}  else if (className.equals(getSimpleName(mxEllipse.class))) {
-		//			wrapper = GWT.create(mxEllipse.class);
-		//		}  else if (className.equals(getSimpleName(mxActor.class))) {
-		//			wrapper = GWT.create(mxActor.class);
-		//		} else if (className.equals(getSimpleName(mxCloud.class))) {
-		//			wrapper = GWT.create(mxCloud.class);
-		//		} else if (className.equals(getSimpleName(mxCylinder.class))) {
-		//			wrapper = GWT.create(mxCylinder.class);
-		//		} else if (className.equals(getSimpleName(mxConnector.class))) {
-		//			wrapper = GWT.create(mxConnector.class);
-		//		} else if (className.equals(getSimpleName(mxDoubleEllipse.class))) {
-		//			wrapper = GWT.create(mxDoubleEllipse.class);
-		//		} else if (className.equals(getSimpleName(mxImageShape.class))) {
-		//			wrapper = GWT.create(mxImageShape.class);
-		//		} else if (className.equals(getSimpleName(mxLabel.class))) {
-		//			wrapper = GWT.create(mxLabel.class);
-		//		} else if (className.equals(getSimpleName(mxLine.class))) {
-		//			wrapper = GWT.create(mxLine.class);
-		//		} else if (className.equals(getSimpleName(mxMarker.class))) {
-		//			wrapper = GWT.create(mxMarker.class);
-		//		} else if (className.equals(getSimpleName(mxSwimlane.class))) {
-		//			wrapper = GWT.create(mxSwimlane.class);
-		//		} else if (className.equals(getSimpleName(mxText.class))) {
-		//			wrapper = GWT.create(mxText.class);
-		//		} else if (className.equals(getSimpleName(mxRhombus.class))) {
-		//			wrapper = GWT.create(mxRhombus.class);
-				}
+	/**
+	 * Binds the given wrapper to the JavaScriptObject it exposes, so that subsequent calls to {@link #wrap(JavaScriptObject)} for the same object return this
+	 * wrapper instead of creating a new one. Wrappers that create their own JavaScriptObject in a constructor should register themselves here.
+	 *
+	 * @param wrapper wrapper to register
+	 */
+	public static void register(IJavaScriptWrapper wrapper) {
+		if (wrapper != null && wrapper.getJso() != null) {
+			cacheWrapper(wrapper.getJso(), wrapper);
+		}
+	}
 
-		return wrapper;
+	/**
+	 * Returns the wrapper previously bound to the given object or null. The bound wrapper is only returned if it still exposes the same object, which guards
+	 * against wrappers whose JavaScriptObject was replaced through {@link IJavaScriptWrapper#setJso(JavaScriptObject)}.
+	 */
+	private static native IJavaScriptWrapper getCachedWrapper(JavaScriptObject jso) /*-{
+		var wrapper = jso.__gwt_wrapper;
+
+		if (wrapper != null && wrapper.@com.mxgraph.jso.IJavaScriptWrapper::getJso()() === jso) {
+			return wrapper;
+		}
+
+		return null;
+	}-*/;
+
+	/**
+	 * Stores the wrapper on the object itself. The property is not enumerable where supported, so mxUtils.clone and mxCodec do not copy or encode it.
+	 */
+	private static native void cacheWrapper(JavaScriptObject jso, IJavaScriptWrapper wrapper) /*-{
+		if (typeof jso != "object" && typeof jso != "function") {
+			return;
+		}
+
+		if (Object.defineProperty) {
+			try {
+				Object.defineProperty(jso, "__gwt_wrapper", {
+					value : wrapper,
+					writable : true,
+					configurable : true,
+					enumerable : false
+				});
+				return;
+			} catch (e) {
+				//IE8 only supports defineProperty on DOM nodes, falls through
+			}
+		}
+
+		jso.__gwt_wrapper = wrapper;
+	}-*/;
+
+	static {
+		registerWrapperFactories();
 	}
 
+	/**
+	 * Populates the constructor-to-factory table used by {@link #createWrapper(JavaScriptObject)}. Each supported JavaScript constructor gets a factory
+	 * function stored on the constructor itself, so resolving the wrapper type of an object is a single property read on its constructor.
+	 *
+	 * GWT compiler cannot dynamically create the class with GWT.create(classLiteral) method, hence the explicit table. Wrappers for mxPoint,
+	 * mxConnectionConstraint, mxCellState, mxStylesheet, mxGraphView, the handlers and the shapes are registered here once they are added.
+	 */
+	private static native void registerWrapperFactories() /*-{
+		var register = function(constructor, factory) {
+			//constructors that are missing from the loaded mxClient are skipped
+			if (constructor != null) {
+				@com.mxgraph.impl.util.WrapperUtils::setWrapperFactory(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(constructor, factory);
+			}
+		};
+		var changeFactory = function(createChange) {
+			return function(jso) {
+				var change = createChange();
+				change.@com.mxgraph.jso.IJavaScriptWrapper::setJso(Lcom/google/gwt/core/client/JavaScriptObject;)(jso);
+				return change;
+			};
+		};
+
+		register($wnd.mxCell, function(jso) {
+			return @com.mxgraph.impl.model.MxCell::new(Lcom/google/gwt/core/client/JavaScriptObject;)(jso);
+		});
+		register($wnd.mxGeometry, function(jso) {
+			return @com.mxgraph.impl.model.MxGeometry::new(Lcom/google/gwt/core/client/JavaScriptObject;)(jso);
+		});
+		register($wnd.mxGraphModel, function(jso) {
+			return @com.mxgraph.impl.model.MxGraphModel::new(Lcom/google/gwt/core/client/JavaScriptObject;)(jso);
+		});
+		register($wnd.mxEventSource, function(jso) {
+			return @com.mxgraph.impl.view.MxEventSource::new(Lcom/google/gwt/core/client/JavaScriptObject;)(jso);
+		});
+		register($wnd.mxEventObject, function(jso) {
+			return @com.mxgraph.impl.view.MxEventObject::new(Lcom/google/gwt/core/client/JavaScriptObject;)(jso);
+		});
+		register($wnd.mxRootChange, changeFactory(function() {
+			return @com.mxgraph.impl.model.MxGraphModel.mxRootChange::new()();
+		}));
+		register($wnd.mxChildChange, changeFactory(function() {
+			return @com.mxgraph.impl.model.MxGraphModel.MxChildChange::new()();
+		}));
+		register($wnd.mxTerminalChange, changeFactory(function() {
+			return @com.mxgraph.impl.model.MxGraphModel.MxTerminalChange::new()();
+		}));
+		register($wnd.mxValueChange, changeFactory(function() {
+			return @com.mxgraph.impl.model.MxGraphModel.MxValueChange::new()();
+		}));
+		register($wnd.mxStyleChange, changeFactory(function() {
+			return @com.mxgraph.impl.model.MxGraphModel.MxStyleChange::new()();
+		}));
+		register($wnd.mxGeometryChange, changeFactory(function() {
+			return @com.mxgraph.impl.model.MxGraphModel.MxGeometryChange::new()();
+		}));
+		register($wnd.mxCollapseChange, changeFactory(function() {
+			return @com.mxgraph.impl.model.MxGraphModel.mxCollapseChange::new()();
+		}));
+		register($wnd.mxVisibleChange, changeFactory(function() {
+			return @com.mxgraph.impl.model.MxGraphModel.mxVisibleChange::new()();
+		}));
+		register($wnd.mxCellAttributeChange, changeFactory(function() {
+			return @com.mxgraph.impl.model.MxGraphModel.MxCellAttributeChange::new()();
+		}));
+	}-*/;
+
+	private static native void setWrapperFactory(JavaScriptObject constructor, JavaScriptObject factory) /*-{
+		if (Object.defineProperty) {
+			try {
+				Object.defineProperty(constructor, "__gwt_wrapperFactory", {
+					value : factory,
+					writable : true,
+					configurable : true,
+					enumerable : false
+				});
+				return;
+			} catch (e) {
+				//IE8 only supports defineProperty on DOM nodes, falls through
+			}
+		}
+
+		constructor.__gwt_wrapperFactory = factory;
+	}-*/;
+
+	/**
+	 * Creates an uninitialized wrapper for the given object by looking up the factory registered for its constructor. Constructors of JavaScript subclasses
+	 * (eg. a custom cell class extending mxCell) are resolved through the prototype chain once and then cached on the subclass constructor.
+	 *
+	 * @param jso object for which to create the wrapper
+	 * @return wrapper or null if no factory is registered for the object's constructor
+	 */
+	private static native IJavaScriptWrapper createWrapper(JavaScriptObject jso) /*-{
+		var constructor = jso.constructor;
+
+		if (constructor == null) {
+			return null;
+		}
+
+		var factory = constructor.__gwt_wrapperFactory;
+
+		if (factory == null && Object.getPrototypeOf && constructor.prototype != null) {
+			var proto = Object.getPrototypeOf(constructor.prototype);
+
+			while (proto != null && factory == null) {
+				factory = proto.constructor != null ? proto.constructor.__gwt_wrapperFactory : null;
+				proto = Object.getPrototypeOf(proto);
+			}
+
+			if (factory != null) {
+				@com.mxgraph.impl.util.WrapperUtils::setWrapperFactory(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(constructor, factory);
+			}
+		}
+
+		return factory != null ? factory(jso) : null;
+	}-*/;
+
 	private static native String getJavaScriptClassName(JavaScriptObject jso) /*-{
 		return jso.constructor.name ? jso.constructor.name : jso.constructor.toString().match(/function ([a-zA-z0-9]*)/)[1];
 	}-*/;
@@ -170,46 +232,37 @@ public class WrapperUtils {
 	}
 
 	/**
-	 * Wraps JavaScript list into Java list. Also wraps the objects inside the list.
+	 * Wraps JavaScript list into Java list. The returned list is a read-only view backed by the JavaScript list, the objects inside are wrapped when they
+	 * are read.
 	 *
 	 * @param list JavaScript list for conversion
-	 * @return new instance of Java list
+	 * @return read-only view of the JavaScript list or null if the passed list is null
 	 */
-	public static native <C extends IJavaScriptWrapper> List<C> wrapList(JavaScriptObject list) /*-{
-
-		var javaList = null;
-
-		if (list != null) {
-			javaList = @java.util.ArrayList::new(I)(list.length);
-
-			for ( var i = 0; i < list.length; i++) {
-				//create an instance of wrapper
-				var instance = @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(list[i]);
-				//and add it to the list
-				javaList.@java.util.ArrayList::add(Ljava/lang/Object;)(instance);
-			}
-		}
-
-		return javaList;
-	}-*/;
+	public static <C extends IJavaScriptWrapper> List<C> wrapList(JavaScriptObject list) {
+		return list != null ? new JavaScriptArrayList<C>(list) : null;
+	}
 
 	/**
-	 * Converts Java list into JavaScript list and unwraps the objects contained in it by exposing the underlying JavaScriptObjectS.
+	 * Converts Java list into JavaScript list and unwraps the objects contained in it by exposing the underlying JavaScriptObjectS. Lists that were created by
+	 * {@link #wrapList(JavaScriptObject)} are not copied, the JavaScript list backing them is returned as is.
 	 *
 	 * @param list list for conversion
 	 * @return JavaScript list
 	 */
-	public static native JavaScriptObject unwrapList(List<? extends IJavaScriptWrapper> list) /*-{
-		var jsList = null;
+	public static JavaScriptObject unwrapList(List<? extends IJavaScriptWrapper> list) {
+		if (list instanceof JavaScriptArrayList) {
+			return ((JavaScriptArrayList<?>) list).getJsArray();
+		}
+
+		return list != null ? unwrapListImpl(list, list.size()) : null;
+	}
 
-		if (list != null) {
-			jsList = [];
-			var iterator = list.@java.util.List::iterator()();
+	private static native JavaScriptObject unwrapListImpl(List<? extends IJavaScriptWrapper> list, int size) /*-{
+		var jsList = new Array(size);
 
-			for ( var i = 0; i < list.@java.util.List::size()(); i++) {
-				var elem = list.@java.util.List::get(I)(i);
-				jsList[i] = elem.@com.mxgraph.jso.IJavaScriptWrapper::getJso()();
-			}
+		for ( var i = 0; i < size; i++) {
+			var elem = list.@java.util.List::get(I)(i);
+			jsList[i] = elem != null ? elem.@com.mxgraph.jso.IJavaScriptWrapper::getJso()() : null;
 		}
 
 		return jsList;
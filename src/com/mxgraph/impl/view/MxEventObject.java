@@ -8,7 +8,7 @@ public class MxEventObject implements IJavaScriptWrapper {
 	protected JavaScriptObject jso;
 
 	private native JavaScriptObject createJso(String name) /*-{
-		return new $wnd.MxEventObject(name);
+		return new $wnd.mxEventObject(name);
 	}-*/;
 
 	private MxEventObject() {
@@ -45,6 +45,18 @@ public class MxEventObject implements IJavaScriptWrapper {
 		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getName();
 	}-*/;
 
+	/**
+	 * Returns the string property for the given key, eg. the component Ids of {@link com.mxgraph.impl.model.MxComponentTracker#COMPONENT_SPLIT}.
+	 *
+	 * @param key property key
+	 * @return property value
+	 */
+	public native String getStringProperty(String key) /*-{
+		var value = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).getProperty(key);
+
+		return (value != null) ? String(value) : null;
+	}-*/;
+
 	/**
 	 * Returns the property for the given key.
 	 *
@@ -1,18 +1,18 @@
 package com.mxgraph.impl.view;
 
 import com.google.gwt.core.client.JavaScriptObject;
-import com.google.gwt.user.client.ui.Composite;
 import com.mxgraph.jso.IJavaScriptWrapper;
 
 /**
- * Base class for objects that dispatch named events.
+ * Base class for objects that dispatch named events. This is a plain wrapper without any widget state, so that model objects stay lightweight; see
+ * {@link MxEventSourceWidget} for event sources that are also widgets.
  */
-public class MxEventSource extends Composite implements IJavaScriptWrapper {
+public class MxEventSource implements IJavaScriptWrapper {
 
 	protected JavaScriptObject jso;
 
 	private native JavaScriptObject createJso(JavaScriptObject eventSource) /*-{
-		return new $wnd.MxEventSource(eventSource);
+		return new $wnd.mxEventSource(eventSource);
 	}-*/;
 
 	public static interface MxIEventListener<C> {
@@ -62,38 +62,36 @@ public class MxEventSource extends Composite implements IJavaScriptWrapper {
 	 *
 	 * @return
 	 */
-	public native boolean isEventsEnabled() /*-{
-		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).eventsEnabled;
-	}-*/;
+	public boolean isEventsEnabled() {
+		return isEventsEnabled(this);
+	}
 
 	/**
 	 * Specifies if events can be fired
 	 *
 	 * @param eventsEnabled
 	 */
-	public native void setEventsEnabled(boolean eventsEnabled) /*-{
-		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).eventsEnabled = eventsEnabled;
-	}-*/;
+	public void setEventsEnabled(boolean eventsEnabled) {
+		setEventsEnabled(this, eventsEnabled);
+	}
 
 	/**
 	 * Gets event source.
 	 *
 	 * @return event source
 	 */
-	public native IJavaScriptWrapper getEventSource() /*-{
-		var eventSourceJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).eventSource;
-		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(eventSourceJS);
-	}-*/;
+	public IJavaScriptWrapper getEventSource() {
+		return getEventSource(this);
+	}
 
 	/**
 	 * Sets event source.
 	 *
 	 * @param eventSource
 	 */
-	public native void setEventSource(IJavaScriptWrapper eventSource) /*-{
-		var eventSourceJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(eventSource);
-		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).eventSource = eventSourceJS;
-	}-*/;
+	public void setEventSource(IJavaScriptWrapper eventSource) {
+		setEventSource(this, eventSource);
+	}
 
 	/**
 	 * Binds the specified listener to the given event name. If no event name is given, then the listener is registered for all events.
@@ -101,33 +99,18 @@ public class MxEventSource extends Composite implements IJavaScriptWrapper {
 	 * @param eventName event to which to attach the listener
 	 * @param listener listener
 	 */
-	public native void addListener(String eventName, MxIEventListener<?> listener) /*-{
-		//Creates a native event listener (function) which really is just a delegate for Java listener
-		var nativeListener = @com.mxgraph.impl.util.WrapperUtils::wrapCallbackInterface(Lcom/mxgraph/impl/view/MxEventSource$MxIEventListener;)(listener);
-
-		//Binds native JavaScript function to Java listener. Needed when removing listeners
-		nativeListener.listenerHash = listener.@java.lang.Object::hashCode()();
-		//Adds listener to native graph model instance
-		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).addListener(eventName, nativeListener);
-	}-*/;
+	public void addListener(String eventName, MxIEventListener<?> listener) {
+		addListener(this, eventName, listener);
+	}
 
 	/**
 	 * Removes all occurrences of the given listener from the list of listeners.
 	 *
 	 * @param listener listener for removal
 	 */
-	public native void removeListener(MxIEventListener<?> listener) /*-{
-		var listenerHash = listener.@java.lang.Object::hashCode()();
-		var eventListenersJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).eventListeners;
-
-		for ( var i = 0; i < eventListenersJS.length; i++) {
-			//only remove native listeners whose hash sum matches the hash sum of Java listeners
-			if (eventListenersJS[i].listenerHash != null && eventListenersJS[i].listenerHash == listenerHash) {
-				@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).removeListener(eventListenersJS[i]);
-			}
-		}
-
-	}-*/;
+	public void removeListener(MxIEventListener<?> listener) {
+		removeListener(this, listener);
+	}
 
 	/**
 	 * Dispatches the given event name with this object as the event source.
@@ -141,10 +124,59 @@ public class MxEventSource extends Composite implements IJavaScriptWrapper {
 	 * Dispatches the given event name, passing all arguments after the given
 	 * name to the registered listeners for the event.
 	 */
-	public native void fireEvent(MxEventObject eventObject, MxEventSource eventSource) /*-{
+	public void fireEvent(MxEventObject eventObject, IJavaScriptWrapper eventSource) {
+		fireEvent(this, eventObject, eventSource);
+	}
+
+	/*
+	 * Implementations shared with MxEventSourceWidget, which wraps a native event source but cannot extend this class.
+	 */
+
+	static native boolean isEventsEnabled(IJavaScriptWrapper source) /*-{
+		return @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(source).eventsEnabled;
+	}-*/;
+
+	static native void setEventsEnabled(IJavaScriptWrapper source, boolean eventsEnabled) /*-{
+		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(source).eventsEnabled = eventsEnabled;
+	}-*/;
+
+	static native IJavaScriptWrapper getEventSource(IJavaScriptWrapper source) /*-{
+		var eventSourceJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(source).eventSource;
+		return @com.mxgraph.impl.util.WrapperUtils::wrap(Lcom/google/gwt/core/client/JavaScriptObject;)(eventSourceJS);
+	}-*/;
+
+	static native void setEventSource(IJavaScriptWrapper source, IJavaScriptWrapper eventSource) /*-{
+		var eventSourceJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(eventSource);
+		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(source).eventSource = eventSourceJS;
+	}-*/;
+
+	static native void addListener(IJavaScriptWrapper source, String eventName, MxIEventListener<?> listener) /*-{
+		//Creates a native event listener (function) which really is just a delegate for Java listener
+		var nativeListener = @com.mxgraph.impl.util.WrapperUtils::wrapCallbackInterface(Lcom/mxgraph/impl/view/MxEventSource$MxIEventListener;)(listener);
+
+		//Binds native JavaScript function to Java listener. Needed when removing listeners
+		nativeListener.listenerHash = listener.@java.lang.Object::hashCode()();
+		//Adds listener to native event source instance
+		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(source).addListener(eventName, nativeListener);
+	}-*/;
+
+	static native void removeListener(IJavaScriptWrapper source, MxIEventListener<?> listener) /*-{
+		var listenerHash = listener.@java.lang.Object::hashCode()();
+		var eventListenersJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(source).eventListeners;
+
+		for ( var i = 0; i < eventListenersJS.length; i++) {
+			//only remove native listeners whose hash sum matches the hash sum of Java listeners
+			if (eventListenersJS[i].listenerHash != null && eventListenersJS[i].listenerHash == listenerHash) {
+				@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(source).removeListener(eventListenersJS[i]);
+			}
+		}
+
+	}-*/;
+
+	static native void fireEvent(IJavaScriptWrapper source, MxEventObject eventObject, IJavaScriptWrapper eventSource) /*-{
 		var eventObjectJS = eventObject != null ? @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(eventObject) : null;
 		var eventSourceJS = eventSource != null ? @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(eventSource) : null;
-		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this).fireEvent(eventObjectJS, eventSourceJS);
+		@com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(source).fireEvent(eventObjectJS, eventSourceJS);
 	}-*/;
 
 }
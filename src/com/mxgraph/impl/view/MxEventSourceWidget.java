@@ -0,0 +1,101 @@
+package com.mxgraph.impl.view;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.user.client.ui.Composite;
+import com.mxgraph.impl.view.MxEventSource.MxIEventListener;
+import com.mxgraph.jso.IJavaScriptWrapper;
+
+/**
+ * Widget counterpart of {@link MxEventSource} for native event sources that own a DOM container, such as the graph. Model-level wrappers should extend
+ * {@link MxEventSource} instead.
+ */
+public class MxEventSourceWidget extends Composite implements IJavaScriptWrapper {
+
+	protected JavaScriptObject jso;
+
+	@Override
+	public JavaScriptObject getJso() {
+		return jso;
+	}
+
+	@Override
+	public void setJso(JavaScriptObject jso) {
+		this.jso = jso;
+	}
+
+	protected MxEventSourceWidget(JavaScriptObject jso) {
+		this.jso = jso;
+	}
+
+	public MxEventSourceWidget() {
+	}
+
+	/**
+	 * Returns true if events can be fired. Default is true.
+	 *
+	 * @return
+	 */
+	public boolean isEventsEnabled() {
+		return MxEventSource.isEventsEnabled(this);
+	}
+
+	/**
+	 * Specifies if events can be fired
+	 *
+	 * @param eventsEnabled
+	 */
+	public void setEventsEnabled(boolean eventsEnabled) {
+		MxEventSource.setEventsEnabled(this, eventsEnabled);
+	}
+
+	/**
+	 * Gets event source.
+	 *
+	 * @return event source
+	 */
+	public IJavaScriptWrapper getEventSource() {
+		return MxEventSource.getEventSource(this);
+	}
+
+	/**
+	 * Sets event source.
+	 *
+	 * @param eventSource
+	 */
+	public void setEventSource(IJavaScriptWrapper eventSource) {
+		MxEventSource.setEventSource(this, eventSource);
+	}
+
+	/**
+	 * Binds the specified listener to the given event name. If no event name is given, then the listener is registered for all events.
+	 *
+	 * @param eventName event to which to attach the listener
+	 * @param listener listener
+	 */
+	public void addListener(String eventName, MxIEventListener<?> listener) {
+		MxEventSource.addListener(this, eventName, listener);
+	}
+
+	/**
+	 * Removes all occurrences of the given listener from the list of listeners.
+	 *
+	 * @param listener listener for removal
+	 */
+	public void removeListener(MxIEventListener<?> listener) {
+		MxEventSource.removeListener(this, listener);
+	}
+
+	/**
+	 * Dispatches the given event name with this object as the event source.
+	 */
+	public void fireEvent(MxEventObject evt) {
+		fireEvent(evt, null);
+	}
+
+	/**
+	 * Dispatches the given event name, passing all arguments after the given name to the registered listeners for the event.
+	 */
+	public void fireEvent(MxEventObject eventObject, IJavaScriptWrapper eventSource) {
+		MxEventSource.fireEvent(this, eventObject, eventSource);
+	}
+}
@@ -1,18 +1,29 @@
 package com.mxgraph.impl.view;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
 import com.google.gwt.dom.client.Document;
+import com.google.gwt.typedarrays.shared.Float64Array;
+import com.google.gwt.typedarrays.shared.Int32Array;
 import com.google.gwt.user.client.ui.LayoutPanel;
+import com.mxgraph.impl.model.MxCycleGuard;
 import com.mxgraph.impl.model.MxGraphModel;
+import com.mxgraph.impl.util.WrapperUtils;
 import com.mxgraph.jso.IJavaScriptWrapper;
+import com.mxgraph.jso.MxICell;
 import com.mxgraph.jso.view.MxGraphJSO;
 
-public class MxGraph extends MxEventSource implements IJavaScriptWrapper
+public class MxGraph extends MxEventSourceWidget implements IJavaScriptWrapper
 {
 	JavaScriptObject graph;
 
 	LayoutPanel divWrapper = new LayoutPanel();
 
+	/**
+	 * Functions of the native graph that were replaced by {@link #setCycleGuardEnabled(boolean)}.
+	 */
+	private JavaScriptObject replacedCellsAdded;
+
 	public MxGraph( String graphContainerId )
 	{
 		setId( graphContainerId );
@@ -199,4 +210,184 @@ public class MxGraph extends MxEventSource implements IJavaScriptWrapper
 		return cell;
 	}-*/;
 
+	/**
+	 * Creates vertices from packed arrays and adds them to the given parent in a single update. Cells are created natively and are not wrapped, which makes
+	 * this the preferred way to load large diagrams.
+	 *
+	 * @param parent
+	 *            Cell that specifies the parent of the new vertices.
+	 * @param ids
+	 *            Optional Ids of the new vertices. Null entries are replaced by generated Ids.
+	 * @param values
+	 *            Optional labels of the new vertices.
+	 * @param bounds
+	 *            x, y, width and height of each vertex, so its length defines the number of vertices.
+	 * @param styles
+	 *            Optional styles of the new vertices.
+	 * @return Returns the Ids of the new vertices in the order of the bounds.
+	 */
+	public native JsArrayString insertVertices( Object parent, JsArrayString ids, JsArrayString values, Float64Array bounds, JsArrayString styles )
+	/*-{
+		var graph = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this);
+		var parentJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(parent);
+		var count = Math.floor(bounds.length / 4);
+		var cells = new Array(count);
+
+		for ( var i = 0; i < count; i++) {
+			cells[i] = graph.createVertex(parentJS, (ids != null) ? ids[i] : null, (values != null) ? values[i] : null, bounds[4 * i],
+					bounds[4 * i + 1], bounds[4 * i + 2], bounds[4 * i + 3], (styles != null) ? styles[i] : null);
+		}
+
+		var model = graph.getModel();
+		model.beginUpdate();
+		try {
+			graph.addCells(cells, parentJS);
+		} finally {
+			model.endUpdate();
+		}
+
+		var result = new Array(count);
+
+		for ( var i = 0; i < count; i++) {
+			result[i] = cells[i].getId();
+		}
+
+		return result;
+	}-*/;
+
+	/**
+	 * Creates edges from packed arrays and adds them to the given parent in a single update.
+	 *
+	 * @param parent
+	 *            Cell that specifies the parent of the new edges.
+	 * @param ids
+	 *            Optional Ids of the new edges. Null entries are replaced by generated Ids.
+	 * @param values
+	 *            Optional labels of the new edges.
+	 * @param terminalIds
+	 *            Ids of the cells that are referenced by pairs, eg. the result of {@link #insertVertices}.
+	 * @param pairs
+	 *            Source and target index into terminalIds for each edge, so its length defines the number of edges. A negative index leaves the end
+	 *            unconnected.
+	 * @param styles
+	 *            Optional styles of the new edges.
+	 * @return Returns the Ids of the new edges in the order of the pairs.
+	 */
+	public native JsArrayString insertEdges( Object parent, JsArrayString ids, JsArrayString values, JsArrayString terminalIds, Int32Array pairs, JsArrayString styles )
+	/*-{
+		var graph = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this);
+		var parentJS = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(parent);
+		var model = graph.getModel();
+		var count = Math.floor(pairs.length / 2);
+
+		// Resolves each referenced terminal once
+		var terminals = new Array(terminalIds.length);
+
+		for ( var i = 0; i < terminalIds.length; i++) {
+			terminals[i] = model.getCell(terminalIds[i]);
+		}
+
+		var result = new Array(count);
+
+		model.beginUpdate();
+		try {
+			for ( var i = 0; i < count; i++) {
+				var source = (pairs[2 * i] >= 0) ? terminals[pairs[2 * i]] : null;
+				var target = (pairs[2 * i + 1] >= 0) ? terminals[pairs[2 * i + 1]] : null;
+				var edge = graph.createEdge(parentJS, (ids != null) ? ids[i] : null, (values != null) ? values[i] : '', source, target,
+						(styles != null) ? styles[i] : null);
+				result[i] = graph.addEdge(edge, parentJS, source, target).getId();
+			}
+		} finally {
+			model.endUpdate();
+		}
+
+		return result;
+	}-*/;
+
+	/**
+	 * Enables or disables the cycle guard of the model (see {@link MxGraphModel#setCycleGuardEnabled(boolean)}) together with a check of new edges. mxGraph
+	 * adds an edge that is inserted with a source and a target, eg. by insertEdge or the connection handler, before it connects the edge end by end, so the
+	 * guard of the model alone would leave a rejected edge connected to its source. While enabled, such edges are checked for both terminals and are not
+	 * added at all if they would close a directed cycle; insertEdge then returns an edge that is not part of the model.
+	 *
+	 * @param enabled
+	 *            true to keep the model acyclic
+	 */
+	public void setCycleGuardEnabled( boolean enabled )
+	{
+		getModel().setCycleGuardEnabled( enabled );
+
+		if ( enabled && replacedCellsAdded == null )
+		{
+			replacedCellsAdded = installCycleGuard();
+		}
+		else if ( !enabled && replacedCellsAdded != null )
+		{
+			uninstallCycleGuard( replacedCellsAdded );
+			replacedCellsAdded = null;
+		}
+	}
+
+	public boolean isCycleGuardEnabled()
+	{
+		return replacedCellsAdded != null;
+	}
+
+	private boolean rejectEdge( JavaScriptObject edge, JavaScriptObject source, JavaScriptObject target )
+	{
+		MxCycleGuard cycleGuard = getModel().getCycleGuard();
+
+		return cycleGuard != null
+				&& cycleGuard.rejectEdge( (MxICell) WrapperUtils.wrap( edge ), (MxICell) WrapperUtils.wrap( source ), (MxICell) WrapperUtils.wrap( target ) );
+	}
+
+	private native JavaScriptObject installCycleGuard()
+	/*-{
+		var self = this;
+		var graph = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this);
+		var replaced = {
+			cellsAdded : graph.cellsAdded,
+			own : graph.hasOwnProperty('cellsAdded')
+		};
+
+		graph.cellsAdded = function(cells, parent, index, source, target) {
+			if (cells != null && source != null && target != null) {
+				var accepted = [];
+
+				for ( var i = 0; i < cells.length; i++) {
+					var cell = cells[i];
+
+					if (cell == null || !this.model.isEdge(cell)
+							|| !self.@com.mxgraph.impl.view.MxGraph::rejectEdge(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(cell, source, target)) {
+						accepted.push(cell);
+					}
+				}
+
+				if (accepted.length == 0) {
+					return;
+				}
+
+				var args = Array.prototype.slice.call(arguments);
+				args[0] = accepted;
+
+				return replaced.cellsAdded.apply(this, args);
+			}
+
+			return replaced.cellsAdded.apply(this, arguments);
+		};
+
+		return replaced;
+	}-*/;
+
+	private native void uninstallCycleGuard( JavaScriptObject replaced )
+	/*-{
+		var graph = @com.mxgraph.impl.util.WrapperUtils::unwrap(Lcom/mxgraph/jso/IJavaScriptWrapper;)(this);
+
+		if (replaced.own) {
+			graph.cellsAdded = replaced.cellsAdded;
+		} else {
+			delete graph.cellsAdded;
+		}
+	}-*/;
 }
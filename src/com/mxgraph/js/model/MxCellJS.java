@@ -0,0 +1,206 @@
+package com.mxgraph.js.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.impl.util.WrapperUtils;
+import com.mxgraph.jso.MxICell;
+
+/**
+ * Overlay type for mxCell. Unlike {@link com.mxgraph.impl.model.MxCell}, which is a Java wrapper holding a reference to the JavaScript object, an overlay is
+ * the JavaScript object itself, so calls compile down to direct method and property access and no wrapper objects are created.
+ *
+ * The methods mirror {@link MxICell}, which allows moving code over gradually. Use {@link #of(MxICell)} and {@link #asCell()} to convert between both
+ * bindings where they meet.
+ */
+public final class MxCellJS extends JavaScriptObject {
+
+	protected MxCellJS() {
+	}
+
+	/**
+	 * Creates a new cell with the given user object, geometry and style.
+	 *
+	 * @param value user object
+	 * @param geometry optional geometry
+	 * @param style optional style
+	 * @return new cell
+	 */
+	public static native MxCellJS create(Object value, MxGeometryJS geometry, String style) /*-{
+		return new $wnd.mxCell(value, geometry, style);
+	}-*/;
+
+	/**
+	 * Returns the overlay for the object exposed by the given wrapper.
+	 *
+	 * @param cell wrapper
+	 * @return overlay or null
+	 */
+	public static MxCellJS of(MxICell cell) {
+		return cell != null ? cell.getJso().<MxCellJS> cast() : null;
+	}
+
+	/**
+	 * Returns the (cached) wrapper for this cell.
+	 *
+	 * @return wrapper
+	 */
+	public MxICell asCell() {
+		return (MxICell) WrapperUtils.wrap(this);
+	}
+
+	public native String getId() /*-{
+		return this.getId();
+	}-*/;
+
+	public native void setId(String id) /*-{
+		this.setId(id);
+	}-*/;
+
+	public native Object getValue() /*-{
+		return this.getValue();
+	}-*/;
+
+	public native void setValue(Object value) /*-{
+		this.setValue(value);
+	}-*/;
+
+	public native MxGeometryJS getGeometry() /*-{
+		return this.getGeometry();
+	}-*/;
+
+	public native void setGeometry(MxGeometryJS geometry) /*-{
+		this.setGeometry(geometry);
+	}-*/;
+
+	public native String getStyle() /*-{
+		return this.getStyle();
+	}-*/;
+
+	public native void setStyle(String style) /*-{
+		this.setStyle(style);
+	}-*/;
+
+	public native boolean isVertex() /*-{
+		return this.isVertex() == true;
+	}-*/;
+
+	public native void setVertex(boolean vertex) /*-{
+		this.setVertex(vertex);
+	}-*/;
+
+	public native boolean isEdge() /*-{
+		return this.isEdge() == true;
+	}-*/;
+
+	public native void setEdge(boolean edge) /*-{
+		this.setEdge(edge);
+	}-*/;
+
+	public native boolean isConnectable() /*-{
+		return this.isConnectable() == true;
+	}-*/;
+
+	public native void setConnectable(boolean connectable) /*-{
+		this.setConnectable(connectable);
+	}-*/;
+
+	public native boolean isVisible() /*-{
+		return this.isVisible() == true;
+	}-*/;
+
+	public native void setVisible(boolean visible) /*-{
+		this.setVisible(visible);
+	}-*/;
+
+	public native boolean isCollapsed() /*-{
+		return this.isCollapsed() == true;
+	}-*/;
+
+	public native void setCollapsed(boolean collapsed) /*-{
+		this.setCollapsed(collapsed);
+	}-*/;
+
+	public native MxCellJS getParent() /*-{
+		return this.getParent();
+	}-*/;
+
+	public native void setParent(MxCellJS parent) /*-{
+		this.setParent(parent);
+	}-*/;
+
+	public native MxCellJS getTerminal(boolean source) /*-{
+		return this.getTerminal(source);
+	}-*/;
+
+	public native MxCellJS setTerminal(MxCellJS terminal, boolean isSource) /*-{
+		return this.setTerminal(terminal, isSource);
+	}-*/;
+
+	public native int getChildCount() /*-{
+		return this.getChildCount();
+	}-*/;
+
+	public native int getIndex(MxCellJS child) /*-{
+		return this.getIndex(child);
+	}-*/;
+
+	public native MxCellJS getChildAt(int index) /*-{
+		return this.getChildAt(index);
+	}-*/;
+
+	public native MxCellJS insert(MxCellJS child) /*-{
+		return this.insert(child);
+	}-*/;
+
+	public native MxCellJS insert(MxCellJS child, int index) /*-{
+		return this.insert(child, index);
+	}-*/;
+
+	public native MxCellJS remove(int index) /*-{
+		return this.remove(index);
+	}-*/;
+
+	public native void removeFromParent() /*-{
+		this.removeFromParent();
+	}-*/;
+
+	public native int getEdgeCount() /*-{
+		return this.getEdgeCount();
+	}-*/;
+
+	public native int getEdgeIndex(MxCellJS edge) /*-{
+		return this.getEdgeIndex(edge);
+	}-*/;
+
+	public native MxCellJS getEdgeAt(int index) /*-{
+		return this.getEdgeAt(index);
+	}-*/;
+
+	public native MxCellJS insertEdge(MxCellJS edge, boolean isOutgoing) /*-{
+		return this.insertEdge(edge, isOutgoing);
+	}-*/;
+
+	public native MxCellJS removeEdge(MxCellJS edge, boolean isOutgoing) /*-{
+		return this.removeEdge(edge, isOutgoing);
+	}-*/;
+
+	public native void removeFromTerminal(boolean isSource) /*-{
+		this.removeFromTerminal(isSource);
+	}-*/;
+
+	/**
+	 * Returns a clone of this cell. Named differently from {@link MxICell#clone()} because overlay types cannot override methods of Object.
+	 *
+	 * @return clone
+	 */
+	public native MxCellJS cloneCell() /*-{
+		return this.clone();
+	}-*/;
+
+	public native String getAttribute(String name, String defaultValue) /*-{
+		return this.getAttribute(name, defaultValue);
+	}-*/;
+
+	public native void setAttribute(String name, String value) /*-{
+		this.setAttribute(name, value);
+	}-*/;
+}
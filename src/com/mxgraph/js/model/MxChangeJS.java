@@ -0,0 +1,62 @@
+package com.mxgraph.js.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Overlay type for the atomic changes of mxGraphModel. The factory methods create the respective mxClient change objects, which are executed by passing
+ * them to {@link MxGraphModelJS#execute(MxChangeJS)}.
+ */
+public final class MxChangeJS extends JavaScriptObject {
+
+	protected MxChangeJS() {
+	}
+
+	public static native MxChangeJS createRootChange(MxGraphModelJS model, MxCellJS root) /*-{
+		return new $wnd.mxRootChange(model, root);
+	}-*/;
+
+	public static native MxChangeJS createChildChange(MxGraphModelJS model, MxCellJS parent, MxCellJS child, int index) /*-{
+		return new $wnd.mxChildChange(model, parent, child, index);
+	}-*/;
+
+	public static native MxChangeJS createTerminalChange(MxGraphModelJS model, MxCellJS cell, MxCellJS terminal, boolean source) /*-{
+		return new $wnd.mxTerminalChange(model, cell, terminal, source);
+	}-*/;
+
+	public static native MxChangeJS createValueChange(MxGraphModelJS model, MxCellJS cell, Object value) /*-{
+		return new $wnd.mxValueChange(model, cell, value);
+	}-*/;
+
+	public static native MxChangeJS createStyleChange(MxGraphModelJS model, MxCellJS cell, String style) /*-{
+		return new $wnd.mxStyleChange(model, cell, style);
+	}-*/;
+
+	public static native MxChangeJS createGeometryChange(MxGraphModelJS model, MxCellJS cell, MxGeometryJS geometry) /*-{
+		return new $wnd.mxGeometryChange(model, cell, geometry);
+	}-*/;
+
+	public static native MxChangeJS createCollapseChange(MxGraphModelJS model, MxCellJS cell, boolean collapsed) /*-{
+		return new $wnd.mxCollapseChange(model, cell, collapsed);
+	}-*/;
+
+	public static native MxChangeJS createVisibleChange(MxGraphModelJS model, MxCellJS cell, boolean visible) /*-{
+		return new $wnd.mxVisibleChange(model, cell, visible);
+	}-*/;
+
+	public static native MxChangeJS createCellAttributeChange(MxCellJS cell, String attribute, String value) /*-{
+		return new $wnd.mxCellAttributeChange(cell, attribute, value);
+	}-*/;
+
+	/**
+	 * Returns the cell affected by this change. For root changes this is the new root, for child changes the child.
+	 *
+	 * @return affected cell
+	 */
+	public native MxCellJS getCell() /*-{
+		return this.cell || this.child || this.root;
+	}-*/;
+
+	public native void execute() /*-{
+		this.execute();
+	}-*/;
+}
@@ -0,0 +1,64 @@
+package com.mxgraph.js.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Overlay type for mxGeometry.
+ */
+public final class MxGeometryJS extends JavaScriptObject {
+
+	protected MxGeometryJS() {
+	}
+
+	public static native MxGeometryJS create(double x, double y, double width, double height) /*-{
+		return new $wnd.mxGeometry(x, y, width, height);
+	}-*/;
+
+	public native double getX() /*-{
+		return this.x;
+	}-*/;
+
+	public native void setX(double x) /*-{
+		this.x = x;
+	}-*/;
+
+	public native double getY() /*-{
+		return this.y;
+	}-*/;
+
+	public native void setY(double y) /*-{
+		this.y = y;
+	}-*/;
+
+	public native double getWidth() /*-{
+		return this.width;
+	}-*/;
+
+	public native void setWidth(double width) /*-{
+		this.width = width;
+	}-*/;
+
+	public native double getHeight() /*-{
+		return this.height;
+	}-*/;
+
+	public native void setHeight(double height) /*-{
+		this.height = height;
+	}-*/;
+
+	public native boolean isRelative() /*-{
+		return this.relative == true;
+	}-*/;
+
+	public native void setRelative(boolean relative) /*-{
+		this.relative = relative;
+	}-*/;
+
+	public native void translate(double dx, double dy) /*-{
+		this.translate(dx, dy);
+	}-*/;
+
+	public native MxGeometryJS cloneGeometry() /*-{
+		return this.clone();
+	}-*/;
+}
@@ -0,0 +1,199 @@
+package com.mxgraph.js.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.mxgraph.impl.model.MxGraphModel;
+import com.mxgraph.impl.util.WrapperUtils;
+
+/**
+ * Overlay type for mxGraphModel. See {@link MxCellJS} for the difference to the wrapper based binding in {@link MxGraphModel}.
+ */
+public final class MxGraphModelJS extends JavaScriptObject {
+
+	protected MxGraphModelJS() {
+	}
+
+	/**
+	 * Constructs a new graph model. If no root is specified then a new root with a default layer is created.
+	 *
+	 * @param root optional root cell
+	 * @return new model
+	 */
+	public static native MxGraphModelJS create(MxCellJS root) /*-{
+		return new $wnd.mxGraphModel(root);
+	}-*/;
+
+	/**
+	 * Returns the overlay for the object exposed by the given wrapper.
+	 *
+	 * @param model wrapper
+	 * @return overlay or null
+	 */
+	public static MxGraphModelJS of(MxGraphModel model) {
+		return model != null ? model.getJso().<MxGraphModelJS> cast() : null;
+	}
+
+	/**
+	 * Returns the (cached) wrapper for this model.
+	 *
+	 * @return wrapper
+	 */
+	public MxGraphModel asModel() {
+		return (MxGraphModel) WrapperUtils.wrap(this);
+	}
+
+	public native void beginUpdate() /*-{
+		this.beginUpdate();
+	}-*/;
+
+	public native void endUpdate() /*-{
+		this.endUpdate();
+	}-*/;
+
+	public native int getUpdateLevel() /*-{
+		return this.updateLevel;
+	}-*/;
+
+	public native MxCellJS getRoot() /*-{
+		return this.getRoot();
+	}-*/;
+
+	public native MxCellJS setRoot(MxCellJS root) /*-{
+		return this.setRoot(root);
+	}-*/;
+
+	public native MxCellJS getCell(String id) /*-{
+		return this.getCell(id);
+	}-*/;
+
+	public native boolean contains(MxCellJS cell) /*-{
+		return this.contains(cell);
+	}-*/;
+
+	public native boolean isAncestor(MxCellJS parent, MxCellJS child) /*-{
+		return this.isAncestor(parent, child);
+	}-*/;
+
+	public native MxCellJS getNearestCommonAncestor(MxCellJS cell1, MxCellJS cell2) /*-{
+		return this.getNearestCommonAncestor(cell1, cell2);
+	}-*/;
+
+	public native MxCellJS getParent(MxCellJS cell) /*-{
+		return this.getParent(cell);
+	}-*/;
+
+	public native MxCellJS add(MxCellJS parent, MxCellJS child) /*-{
+		return this.add(parent, child);
+	}-*/;
+
+	public native MxCellJS add(MxCellJS parent, MxCellJS child, int index) /*-{
+		return this.add(parent, child, index);
+	}-*/;
+
+	public native MxCellJS remove(MxCellJS cell) /*-{
+		return this.remove(cell);
+	}-*/;
+
+	public native int getChildCount(MxCellJS cell) /*-{
+		return this.getChildCount(cell);
+	}-*/;
+
+	public native MxCellJS getChildAt(MxCellJS cell, int index) /*-{
+		return this.getChildAt(cell, index);
+	}-*/;
+
+	/**
+	 * Returns the children of the given cell. The returned array is the children array of the cell, it must not be modified.
+	 *
+	 * @param cell parent cell
+	 * @return children or null
+	 */
+	public native JsArray<MxCellJS> getChildren(MxCellJS cell) /*-{
+		return this.getChildren(cell);
+	}-*/;
+
+	public native JsArray<MxCellJS> getDescendants(MxCellJS parent) /*-{
+		return this.getDescendants(parent);
+	}-*/;
+
+	public native MxCellJS getTerminal(MxCellJS edge, boolean isSource) /*-{
+		return this.getTerminal(edge, isSource);
+	}-*/;
+
+	public native MxCellJS setTerminal(MxCellJS edge, MxCellJS terminal, boolean isSource) /*-{
+		return this.setTerminal(edge, terminal, isSource);
+	}-*/;
+
+	public native void setTerminals(MxCellJS edge, MxCellJS source, MxCellJS target) /*-{
+		this.setTerminals(edge, source, target);
+	}-*/;
+
+	public native int getEdgeCount(MxCellJS cell) /*-{
+		return this.getEdgeCount(cell);
+	}-*/;
+
+	public native MxCellJS getEdgeAt(MxCellJS cell, int index) /*-{
+		return this.getEdgeAt(cell, index);
+	}-*/;
+
+	public native JsArray<MxCellJS> getEdgesBetween(MxCellJS source, MxCellJS target, boolean directed) /*-{
+		return this.getEdgesBetween(source, target, directed);
+	}-*/;
+
+	public native boolean isVertex(MxCellJS cell) /*-{
+		return this.isVertex(cell) == true;
+	}-*/;
+
+	public native boolean isEdge(MxCellJS cell) /*-{
+		return this.isEdge(cell) == true;
+	}-*/;
+
+	public native Object getValue(MxCellJS cell) /*-{
+		return this.getValue(cell);
+	}-*/;
+
+	public native void setValue(MxCellJS cell, Object value) /*-{
+		this.setValue(cell, value);
+	}-*/;
+
+	public native String getStyle(MxCellJS cell) /*-{
+		return this.getStyle(cell);
+	}-*/;
+
+	public native void setStyle(MxCellJS cell, String style) /*-{
+		this.setStyle(cell, style);
+	}-*/;
+
+	public native MxGeometryJS getGeometry(MxCellJS cell) /*-{
+		return this.getGeometry(cell);
+	}-*/;
+
+	public native void setGeometry(MxCellJS cell, MxGeometryJS geometry) /*-{
+		this.setGeometry(cell, geometry);
+	}-*/;
+
+	public native boolean isVisible(MxCellJS cell) /*-{
+		return this.isVisible(cell) == true;
+	}-*/;
+
+	public native void setVisible(MxCellJS cell, boolean visible) /*-{
+		this.setVisible(cell, visible);
+	}-*/;
+
+	public native boolean isCollapsed(MxCellJS cell) /*-{
+		return this.isCollapsed(cell) == true;
+	}-*/;
+
+	public native void setCollapsed(MxCellJS cell, boolean collapsed) /*-{
+		this.setCollapsed(cell, collapsed);
+	}-*/;
+
+	/**
+	 * Executes the given change and adds it to the current transaction.
+	 *
+	 * @param change change to execute
+	 */
+	public native void execute(MxChangeJS change) /*-{
+		this.execute(change);
+	}-*/;
+}
@@ -0,0 +1,45 @@
+package com.mxgraph.js.view;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+import com.mxgraph.js.model.MxCellJS;
+import com.mxgraph.js.model.MxGraphModelJS;
+
+/**
+ * Overlay type for mxGraph. Complements {@link com.mxgraph.jso.view.MxGraphJSO}, which holds the graph settings, with the cell and model operations.
+ */
+public final class MxGraphJS extends JavaScriptObject {
+
+	protected MxGraphJS() {
+	}
+
+	/**
+	 * Creates a new graph inside the given container.
+	 *
+	 * @param container DOM node that will contain the graph display
+	 * @return new graph
+	 */
+	public static native MxGraphJS create(Element container) /*-{
+		return new $wnd.mxGraph(container);
+	}-*/;
+
+	public native MxGraphModelJS getModel() /*-{
+		return this.getModel();
+	}-*/;
+
+	public native MxCellJS getDefaultParent() /*-{
+		return this.getDefaultParent();
+	}-*/;
+
+	public native MxCellJS insertVertex(MxCellJS parent, String id, Object value, double x, double y, double width, double height, String style) /*-{
+		return this.insertVertex(parent, id, value, x, y, width, height, style);
+	}-*/;
+
+	public native MxCellJS insertEdge(MxCellJS parent, String id, Object value, MxCellJS source, MxCellJS target, String style) /*-{
+		return this.insertEdge(parent, id, value, source, target, style);
+	}-*/;
+
+	public native void refresh() /*-{
+		this.refresh();
+	}-*/;
+}
@@ -1,5 +1,7 @@
 package com.mxgraph.jso;
 
+import com.mxgraph.impl.model.MxGeometry;
+
 /**
  * Defines the requirements for a cell that can be used in an mxGraphModel.
  */
@@ -39,12 +41,12 @@ public interface MxICell extends IJavaScriptWrapper
 	 *
 	 * @return Returns the cell geometry.
 	 */
-	//MxGeometry getGeometry();
+	MxGeometry getGeometry();
 
 	/**
 	 * Sets the object to be used as the geometry.
 	 */
-	//void setGeometry(MxGeometry geometry);
+	void setGeometry(MxGeometry geometry);
 
 	/**
 	 * Returns the string that describes the style.
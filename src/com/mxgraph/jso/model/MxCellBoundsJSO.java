@@ -0,0 +1,109 @@
+package com.mxgraph.jso.model;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.typedarrays.shared.Float64Array;
+
+/**
+ * Packed bounds of a set of cells as written by the bulk geometry methods of the graph model. The bounds of the cell at index <code>i</code> are stored in
+ * {@link #getBounds()} at <code>4 * i</code> (x), <code>4 * i + 1</code> (y), <code>4 * i + 2</code> (width) and <code>4 * i + 3</code> (height), the Id of
+ * the cell is stored in {@link #getIds()} at <code>i</code>. Cells without a geometry have NaN bounds.
+ *
+ * Instances can be passed back to the model to be refilled, in which case the typed array is only reallocated if it is too small.
+ */
+public final class MxCellBoundsJSO extends JavaScriptObject {
+
+	protected MxCellBoundsJSO() {
+	}
+
+	/**
+	 * Creates an empty instance with room for the given number of cells.
+	 *
+	 * @param capacity number of cells
+	 * @return new instance
+	 */
+	public static native MxCellBoundsJSO create(int capacity) /*-{
+		return {
+			length : 0,
+			ids : [],
+			bounds : new Float64Array(Math.max(capacity, 0) * 4),
+			absolute : false,
+			index : null
+		};
+	}-*/;
+
+	/**
+	 * Returns the number of cells whose bounds are stored.
+	 *
+	 * @return number of cells
+	 */
+	public native int length() /*-{
+		return this.length;
+	}-*/;
+
+	/**
+	 * Returns the Ids of the cells, parallel to the bounds.
+	 *
+	 * @return array of Ids
+	 */
+	public native JsArrayString getIds() /*-{
+		return this.ids;
+	}-*/;
+
+	/**
+	 * Returns the packed bounds. The array may be longer than <code>4 * length()</code> if this instance was reused.
+	 *
+	 * @return x, y, width and height of each cell
+	 */
+	public native Float64Array getBounds() /*-{
+		return this.bounds;
+	}-*/;
+
+	/**
+	 * Returns true if the bounds include the origins of the parents of the cells, false if they are relative to the parents like the geometries.
+	 *
+	 * @return absolute state
+	 */
+	public native boolean isAbsolute() /*-{
+		return this.absolute == true;
+	}-*/;
+
+	public native String getId(int index) /*-{
+		return this.ids[index];
+	}-*/;
+
+	public native double getX(int index) /*-{
+		return this.bounds[index * 4];
+	}-*/;
+
+	public native double getY(int index) /*-{
+		return this.bounds[index * 4 + 1];
+	}-*/;
+
+	public native double getWidth(int index) /*-{
+		return this.bounds[index * 4 + 2];
+	}-*/;
+
+	public native double getHeight(int index) /*-{
+		return this.bounds[index * 4 + 3];
+	}-*/;
+
+	/**
+	 * Returns the index of the cell with the given Id or -1. The Id index is built on the first call and dropped when the instance is refilled.
+	 *
+	 * @param id Id of the cell
+	 * @return index of the cell
+	 */
+	public native int indexOf(String id) /*-{
+		if (this.index == null) {
+			this.index = {};
+
+			for ( var i = 0; i < this.length; i++) {
+				this.index[this.ids[i]] = i;
+			}
+		}
+
+		var result = this.index[id];
+		return result != null && Object.prototype.hasOwnProperty.call(this.index, id) ? result : -1;
+	}-*/;
+}
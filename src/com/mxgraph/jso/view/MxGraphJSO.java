@@ -1,6 +1,7 @@
 package com.mxgraph.jso.view;
 
 import com.google.gwt.core.client.JavaScriptObject;
+import com.mxgraph.api.view.IsMxGraph;
 
 public final class MxGraphJSO extends JavaScriptObject {
 
@@ -65,4 +66,128 @@ public final class MxGraphJSO extends JavaScriptObject {
 	/*-{
 		this.gridSize = gridSize;
 	}-*/;
+
+	/**
+	 * Copies the configuration of the given graph description onto this graph in a single native call. Only properties whose value differs from the current
+	 * value of the graph are assigned. The runtime state (mouseDown, defaultParent) and the rendering setup that is fixed when the graph is created (dialect,
+	 * renderHint) are not copied.
+	 *
+	 * @param config graph configuration, eg. a {@link com.mxgraph.json.view.MxGraphJSON}
+	 * @return number of properties that have been changed
+	 */
+	public native int apply(IsMxGraph config)
+	/*-{
+		var values = {
+			allowAutoPanning : config.@com.mxgraph.api.view.IsMxGraph::isAllowAutoPanning()(),
+			gridSize : config.@com.mxgraph.api.view.IsMxGraph::getGridSize()(),
+			gridEnabled : config.@com.mxgraph.api.view.IsMxGraph::isGridEnabled()(),
+			portsEnabled : config.@com.mxgraph.api.view.IsMxGraph::isPortsEnabled()(),
+			defaultOverlap : config.@com.mxgraph.api.view.IsMxGraph::getDefaultOverlap()(),
+			alternateEdgeStyle : config.@com.mxgraph.api.view.IsMxGraph::getAlternateEdgeStyle()(),
+			enabled : config.@com.mxgraph.api.view.IsMxGraph::isEnabled()(),
+			cellsLocked : config.@com.mxgraph.api.view.IsMxGraph::isCellsLocked()(),
+			cellsEditable : config.@com.mxgraph.api.view.IsMxGraph::isCellsEditable()(),
+			cellsResizable : config.@com.mxgraph.api.view.IsMxGraph::isCellsResizable()(),
+			cellsMovable : config.@com.mxgraph.api.view.IsMxGraph::isCellsMovable()(),
+			cellsBendable : config.@com.mxgraph.api.view.IsMxGraph::isCellsBendable()(),
+			cellsSelectable : config.@com.mxgraph.api.view.IsMxGraph::isCellsSelectable()(),
+			cellsDeletable : config.@com.mxgraph.api.view.IsMxGraph::isCellsDeletable()(),
+			cellsCloneable : config.@com.mxgraph.api.view.IsMxGraph::isCellsCloneable()(),
+			cellsDisconnectable : config.@com.mxgraph.api.view.IsMxGraph::isCellsDisconnectable()(),
+			labelsClipped : config.@com.mxgraph.api.view.IsMxGraph::isLabelsClipped()(),
+			edgeLabelsMovable : config.@com.mxgraph.api.view.IsMxGraph::isEdgeLabelsMovable()(),
+			vertexLabelsMovable : config.@com.mxgraph.api.view.IsMxGraph::isVertexLabelsMovable()(),
+			dropEnabled : config.@com.mxgraph.api.view.IsMxGraph::isDropEnabled()(),
+			splitEnabled : config.@com.mxgraph.api.view.IsMxGraph::isSplitEnabled()(),
+			autoSizeCells : config.@com.mxgraph.api.view.IsMxGraph::isAutoSizeCells()(),
+			border : config.@com.mxgraph.api.view.IsMxGraph::getBorder()(),
+			keepEdgesInForeground : config.@com.mxgraph.api.view.IsMxGraph::isKeepEdgesInForeground()(),
+			keepEdgesInBackground : config.@com.mxgraph.api.view.IsMxGraph::isKeepEdgesInBackground()(),
+			collapseToPreferredSize : config.@com.mxgraph.api.view.IsMxGraph::isCollapseToPreferredSize()(),
+			allowNegativeCoordinates : config.@com.mxgraph.api.view.IsMxGraph::isAllowNegativeCoordinates()(),
+			constrainChildren : config.@com.mxgraph.api.view.IsMxGraph::isConstrainChildren()(),
+			extendParents : config.@com.mxgraph.api.view.IsMxGraph::isExtendParents()(),
+			extendParentsOnAdd : config.@com.mxgraph.api.view.IsMxGraph::isExtendParentsOnAdd()(),
+			resetViewOnRootChange : config.@com.mxgraph.api.view.IsMxGraph::isResetViewOnRootChange()(),
+			resetEdgesOnResize : config.@com.mxgraph.api.view.IsMxGraph::isResetEdgesOnResize()(),
+			resetEdgesOnMove : config.@com.mxgraph.api.view.IsMxGraph::isResetEdgesOnMove()(),
+			resetEdgesOnConnect : config.@com.mxgraph.api.view.IsMxGraph::isResetEdgesOnConnect()(),
+			allowLoops : config.@com.mxgraph.api.view.IsMxGraph::isAllowLoops()(),
+			multigraph : config.@com.mxgraph.api.view.IsMxGraph::isMultigraph()(),
+			connectableEdges : config.@com.mxgraph.api.view.IsMxGraph::isConnectableEdges()(),
+			allowDanglingEdges : config.@com.mxgraph.api.view.IsMxGraph::isAllowDanglingEdges()(),
+			cloneInvalidEdges : config.@com.mxgraph.api.view.IsMxGraph::isCloneInvalidEdges()(),
+			disconnectOnMove : config.@com.mxgraph.api.view.IsMxGraph::isDisconnectOnMove()(),
+			labelsVisible : config.@com.mxgraph.api.view.IsMxGraph::isLabelsVisible()(),
+			htmlLabels : config.@com.mxgraph.api.view.IsMxGraph::isHtmlLabels()(),
+			swimlaneNesting : config.@com.mxgraph.api.view.IsMxGraph::isSwimlaneNesting()(),
+			changesRepaintThreshold : config.@com.mxgraph.api.view.IsMxGraph::getChangesRepaintThreshold()(),
+			autoOrigin : config.@com.mxgraph.api.view.IsMxGraph::isAutoOrigin()()
+		};
+		var changed = 0;
+
+		for ( var key in values) {
+			if (this[key] !== values[key]) {
+				this[key] = values[key];
+				changed++;
+			}
+		}
+
+		return changed;
+	}-*/;
+
+	/**
+	 * Copies the configuration of this graph into the given graph description in a single native call. The same properties as in {@link #apply(IsMxGraph)}
+	 * are copied.
+	 *
+	 * @param config graph configuration that receives the values
+	 */
+	public native void read(IsMxGraph config)
+	/*-{
+		config.@com.mxgraph.api.view.IsMxGraph::setAllowAutoPanning(Z)(this.allowAutoPanning == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setGridSize(I)(this.gridSize);
+		config.@com.mxgraph.api.view.IsMxGraph::setGridEnabled(Z)(this.gridEnabled == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setPortsEnabled(Z)(this.portsEnabled == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setDefaultOverlap(D)(this.defaultOverlap);
+		config.@com.mxgraph.api.view.IsMxGraph::setAlternateEdgeStyle(Ljava/lang/String;)((this.alternateEdgeStyle != null) ? this.alternateEdgeStyle : null);
+		config.@com.mxgraph.api.view.IsMxGraph::setEnabled(Z)(this.enabled == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setCellsLocked(Z)(this.cellsLocked == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setCellsEditable(Z)(this.cellsEditable == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setCellsResizable(Z)(this.cellsResizable == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setCellsMovable(Z)(this.cellsMovable == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setCellsBendable(Z)(this.cellsBendable == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setCellsSelectable(Z)(this.cellsSelectable == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setCellsDeletable(Z)(this.cellsDeletable == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setCellsCloneable(Z)(this.cellsCloneable == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setCellsDisconnectable(Z)(this.cellsDisconnectable == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setLabelsClipped(Z)(this.labelsClipped == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setEdgeLabelsMovable(Z)(this.edgeLabelsMovable == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setVertexLabelsMovable(Z)(this.vertexLabelsMovable == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setDropEnabled(Z)(this.dropEnabled == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setSplitEnabled(Z)(this.splitEnabled == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setAutoSizeCells(Z)(this.autoSizeCells == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setBorder(I)(this.border);
+		config.@com.mxgraph.api.view.IsMxGraph::setKeepEdgesInForeground(Z)(this.keepEdgesInForeground == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setKeepEdgesInBackground(Z)(this.keepEdgesInBackground == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setCollapseToPreferredSize(Z)(this.collapseToPreferredSize == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setAllowNegativeCoordinates(Z)(this.allowNegativeCoordinates == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setConstrainChildren(Z)(this.constrainChildren == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setExtendParents(Z)(this.extendParents == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setExtendParentsOnAdd(Z)(this.extendParentsOnAdd == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setResetViewOnRootChange(Z)(this.resetViewOnRootChange == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setResetEdgesOnResize(Z)(this.resetEdgesOnResize == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setResetEdgesOnMove(Z)(this.resetEdgesOnMove == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setResetEdgesOnConnect(Z)(this.resetEdgesOnConnect == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setAllowLoops(Z)(this.allowLoops == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setMultigraph(Z)(this.multigraph == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setConnectableEdges(Z)(this.connectableEdges == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setAllowDanglingEdges(Z)(this.allowDanglingEdges == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setCloneInvalidEdges(Z)(this.cloneInvalidEdges == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setDisconnectOnMove(Z)(this.disconnectOnMove == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setLabelsVisible(Z)(this.labelsVisible == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setHtmlLabels(Z)(this.htmlLabels == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setSwimlaneNesting(Z)(this.swimlaneNesting == true);
+		config.@com.mxgraph.api.view.IsMxGraph::setChangesRepaintThreshold(I)(this.changesRepaintThreshold);
+		config.@com.mxgraph.api.view.IsMxGraph::setAutoOrigin(Z)(this.autoOrigin == true);
+	}-*/;
 }